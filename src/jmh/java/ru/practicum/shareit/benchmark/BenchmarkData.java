@@ -0,0 +1,127 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Контекст приложения на H2 (профиль test, миграции db/migration/h2), заполненный items вещами.
+ * На каждую вещь приходится bookingsPerItem бронирований (не меньше трёх: прошлое, будущее,
+ * ожидающее, остальные — прошлые подтверждённые) и один комментарий. Будущие бронирования
+ * сдвинуты на id % 7 дней, так что окно поиска свободных вещей исключает часть найденных.
+ * Параметр logging сравнивает настройки логирования по умолчанию с профилем perf,
+ * virtualThreads и poolSize (0 — размер по умолчанию) задают режим потоков и размер пула соединений.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkData {
+    static final int ITEMS_PER_OWNER = 100;
+    static final int BOOKERS = 100;
+    static final int SEED_BATCH = 10_000;
+
+    @Param({"1000", "10000"})
+    public int items;
+
+    @Param({"3"})
+    public int bookingsPerItem;
+
+    @Param({"default", "perf"})
+    public String logging;
+
+    @Param({"false"})
+    public boolean virtualThreads;
+
+    @Param({"0"})
+    public int poolSize;
+
+    ConfigurableApplicationContext context;
+    ItemService itemService;
+    ItemRepository itemRepository;
+    BookingService bookingService;
+    long ownerId;
+    long itemId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> properties = new ArrayList<>();
+        properties.add("spring.threads.virtual.enabled=" + virtualThreads);
+        if (poolSize > 0) {
+            properties.add("spring.datasource.hikari.maximum-pool-size=" + poolSize);
+        }
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("perf".equals(logging) ? new String[]{"test", "perf"} : new String[]{"test"})
+                .properties(properties.toArray(new String[0]))
+                .run();
+        itemService = context.getBean(ItemService.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingService = context.getBean(BookingService.class);
+        seed(context.getBean(JdbcTemplate.class));
+        ownerId = BOOKERS + 1;
+        itemId = 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        int owners = Math.max(1, items / ITEMS_PER_OWNER);
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= BOOKERS + owners; id++) {
+            users.add(new Object[]{id, "user" + id, "user" + id + "@shareit.ru"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> itemRows = new ArrayList<>();
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (long id = 1; id <= items; id++) {
+            long owner = BOOKERS + 1 + (id - 1) / ITEMS_PER_OWNER;
+            long booker = 1 + id % BOOKERS;
+            itemRows.add(new Object[]{id, "Дрель " + id, "Аккумуляторная дрель номер " + id, id % 10 != 0, owner});
+            bookings.add(new Object[]{ts(now.minusDays(10)), ts(now.minusDays(9)), id, booker, "APPROVED"});
+            bookings.add(new Object[]{ts(now.plusDays(9 + id % 7)), ts(now.plusDays(10 + id % 7)), id, booker, "APPROVED"});
+            bookings.add(new Object[]{ts(now.plusDays(20)), ts(now.plusDays(21)), id, booker, "WAITING"});
+            for (int i = 3; i < bookingsPerItem; i++) {
+                bookings.add(new Object[]{ts(now.minusWeeks(i)), ts(now.minusWeeks(i).plusDays(1)), id, booker, "APPROVED"});
+            }
+            comments.add(new Object[]{"Отличная дрель " + id, id, booker, ts(now.minusDays(8))});
+            if (itemRows.size() >= SEED_BATCH) {
+                flush(jdbcTemplate, itemRows, bookings, comments);
+            }
+        }
+        flush(jdbcTemplate, itemRows, bookings, comments);
+    }
+
+    private static void flush(JdbcTemplate jdbcTemplate, List<Object[]> itemRows, List<Object[]> bookings,
+                              List<Object[]> comments) {
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, available, owner_id) values (?, ?, ?, ?, ?)", itemRows);
+        jdbcTemplate.batchUpdate("insert into bookings (start, end_time, item_id, booker_id, status) values (?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.batchUpdate("insert into comments (text, item_id, author_id, created) values (?, ?, ?, ?)", comments);
+        itemRows.clear();
+        bookings.clear();
+        comments.clear();
+    }
+
+    private static Timestamp ts(LocalDateTime dateTime) {
+        return Timestamp.valueOf(dateTime);
+    }
+}
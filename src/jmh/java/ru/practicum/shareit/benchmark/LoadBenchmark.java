@@ -0,0 +1,70 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemWithBookingsAndCommentsDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный прогон: concurrency одновременных запросов карточки вещи к пулу из poolSize соединений,
+ * на платформенных потоках или на виртуальных с ConnectionLimitingDataSource перед пулом.
+ * Одна операция — пачка из concurrency запросов, поэтому запросов в секунду = ops/s * concurrency.
+ */
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LoadBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Load {
+        @Param({"200", "2000"})
+        public int concurrency;
+
+        ExecutorService executor;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkData data) {
+            executor = data.virtualThreads
+                    ? Executors.newVirtualThreadPerTaskExecutor()
+                    : Executors.newFixedThreadPool(concurrency);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public int concurrentItemReads(BenchmarkData data, Load load) throws Exception {
+        List<Callable<ItemWithBookingsAndCommentsDto>> requests = new ArrayList<>(load.concurrency);
+        for (int i = 0; i < load.concurrency; i++) {
+            long itemId = 1 + i % data.items;
+            requests.add(() -> data.itemService.getItemById(itemId, data.ownerId));
+        }
+        for (Future<ItemWithBookingsAndCommentsDto> response : load.executor.invokeAll(requests)) {
+            response.get();
+        }
+        return requests.size();
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchIndex;
+import ru.practicum.shareit.user.model.User;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InMemoryItemSearchIndex без Spring и БД: items вещей с теми же текстами, что в BenchmarkData,
+ * а страница найденных вещей берётся из памяти. После построения индекса печатается занятая им
+ * куча (разница used heap после System.gc() до и после построения) и оценка estimateMemoryBytes.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchIndexBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Index {
+        @Param({"100000", "1000000"})
+        public int items;
+
+        InMemoryItemSearchIndex index;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Map<Long, Item> stored = new HashMap<>();
+            User owner = new User();
+            owner.setId(1L);
+            for (long id = 1; id <= items; id++) {
+                Item item = new Item();
+                item.setId(id);
+                item.setName("Дрель " + id);
+                item.setDescription("Аккумуляторная дрель номер " + id);
+                item.setAvailable(true);
+                item.setOwner(owner);
+                stored.put(id, item);
+            }
+            ItemRepository itemRepository = (ItemRepository) Proxy.newProxyInstance(
+                    ItemRepository.class.getClassLoader(), new Class<?>[]{ItemRepository.class},
+                    (proxy, method, args) -> {
+                        if (!method.getName().equals("findAllById")) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        List<Item> found = new ArrayList<>();
+                        ((Iterable<?>) args[0]).forEach(id -> found.add(stored.get((Long) id)));
+                        return found;
+                    });
+
+            long before = usedHeap();
+            index = new InMemoryItemSearchIndex(itemRepository, null);
+            stored.values().forEach(index::index);
+            long after = usedHeap();
+            System.out.printf("%nИндекс на %d вещей: %d МБ кучи, оценка %d МБ%n",
+                    items, (after - before) >> 20, index.estimateMemoryBytes() >> 20);
+        }
+
+        private static long usedHeap() {
+            Runtime runtime = Runtime.getRuntime();
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+            }
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+
+    @Benchmark
+    public List<Item> searchCommon(Index state) {
+        return state.index.search("дрель 12", 0, 20);
+    }
+
+    @Benchmark
+    public List<Item> searchRare(Index state) {
+        return state.index.search("номер 123456", 0, 20);
+    }
+}
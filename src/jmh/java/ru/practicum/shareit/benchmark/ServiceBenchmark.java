@@ -0,0 +1,72 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemWithBookingsAndCommentsDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class StateParam {
+        @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+        public String state;
+    }
+
+    @Benchmark
+    public List<Item> searchItems(BenchmarkData data) {
+        return data.itemService.searchItems("дрель 12", 0, 20);
+    }
+
+    /**
+     * Прежняя реализация searchItems: все вещи из базы и фильтр contains в Java. База для сравнения с searchItems.
+     */
+    @Benchmark
+    public List<Item> searchItemsByScan(BenchmarkData data) {
+        String text = "дрель 12";
+        return data.itemRepository.findAll().stream()
+                .filter(item -> Boolean.TRUE.equals(item.getAvailable())
+                        && (item.getName().toLowerCase().contains(text) || item.getDescription().toLowerCase().contains(text)))
+                .toList();
+    }
+
+    @Benchmark
+    public List<Item> searchFreeItems(BenchmarkData data) throws ValidationException {
+        LocalDateTime start = LocalDateTime.now().plusDays(9);
+        return data.itemService.searchFreeItems("дрель 12", start, start.plusDays(1), 0, 20);
+    }
+
+    @Benchmark
+    public List<ItemWithBookingsAndCommentsDto> getItemsByOwner(BenchmarkData data) {
+        return data.itemService.getItemsByOwner(data.ownerId, 0L, 20);
+    }
+
+    @Benchmark
+    public ItemWithBookingsAndCommentsDto getItemById(BenchmarkData data) {
+        return data.itemService.getItemById(data.itemId, data.ownerId);
+    }
+
+    @Benchmark
+    public List<Booking> getBookingsByOwner(BenchmarkData data, StateParam param) throws ValidationException {
+        return data.bookingService.getBookingsByOwner(data.ownerId, param.state, null, 20);
+    }
+}
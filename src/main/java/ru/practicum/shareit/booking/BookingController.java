@@ -1,17 +1,31 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Slf4j
@@ -22,42 +36,90 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingMapper bookingMapper;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String RETRY_HEADER = "X-Retry";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Booking createBooking(@RequestHeader(USER_ID_HEADER) Long userId,
-                                 @Valid @RequestBody BookingRequestDto bookingRequestDto) throws ValidationException {
+    public BookingDto createBooking(@RequestHeader(USER_ID_HEADER) Long userId,
+                                    @Valid @RequestBody BookingRequestDto bookingRequestDto) throws ValidationException, ConflictException {
         log.info("Запрос на создание бронирования от пользователя {} для вещи {}.", userId, bookingRequestDto.getItemId());
-        return bookingService.createBooking(userId, bookingRequestDto);
+        return bookingMapper.toBookingDto(bookingService.createBooking(userId, bookingRequestDto));
     }
 
     @PatchMapping("/{bookingId}")
-    public Booking approveBooking(@RequestHeader(USER_ID_HEADER) Long userId,
-                                  @PathVariable Long bookingId,
-                                  @RequestParam Boolean approved) throws ValidationException, ConflictException {
+    public BookingDto approveBooking(@RequestHeader(USER_ID_HEADER) Long userId,
+                                     @PathVariable Long bookingId,
+                                     @RequestParam Boolean approved,
+                                     @RequestHeader(value = RETRY_HEADER, defaultValue = "false") boolean retry)
+            throws ValidationException, ConflictException {
         log.info("Запрос на {} бронирования {} от пользователя {}.", approved ? "подтверждение" : "отклонение", bookingId, userId);
-        return bookingService.approveBooking(userId, bookingId, approved);
+        return bookingMapper.toBookingDto(bookingService.approveBooking(userId, bookingId, approved, retry));
     }
 
     @GetMapping("/{bookingId}")
-    public Booking getBookingById(@RequestHeader(USER_ID_HEADER) Long userId,
-                                  @PathVariable Long bookingId) {
-        log.info("Запрос на получение данных о бронировании {} от пользователя {}.", bookingId, userId);
-        return bookingService.getBookingById(userId, bookingId);
+    public BookingDto getBookingById(@RequestHeader(USER_ID_HEADER) Long userId,
+                                     @PathVariable Long bookingId) {
+        log.debug("Запрос на получение данных о бронировании {} от пользователя {}.", bookingId, userId);
+        return bookingMapper.toBookingDto(bookingService.getBookingById(userId, bookingId));
     }
 
     @GetMapping
-    public List<Booking> getBookingsByUser(@RequestHeader(USER_ID_HEADER) Long userId,
-                                           @RequestParam(defaultValue = "ALL") String state) throws ValidationException {
-        log.info("Запрос на получение бронирований пользователя {} со статусом {}.", userId, state);
-        return bookingService.getBookingsByUser(userId, state);
+    public ResponseEntity<List<BookingDto>> getBookingsByUser(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                              @RequestParam(defaultValue = "ALL") String state,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "20") @Positive Integer size) throws ValidationException {
+        log.debug("Запрос на получение бронирований пользователя {} со статусом {}.", userId, state);
+        return toPage(bookingService.getBookingsByUser(userId, state, cursor, size), size);
     }
 
     @GetMapping("/owner")
-    public List<Booking> getBookingsByOwner(@RequestHeader(USER_ID_HEADER) Long userId,
-                                            @RequestParam(defaultValue = "ALL") String state) throws ValidationException {
-        log.info("Запрос на получение бронирований для вещей пользователя {} со статусом {}.", userId, state);
-        return bookingService.getBookingsByOwner(userId, state);
+    public ResponseEntity<List<BookingDto>> getBookingsByOwner(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                               @RequestParam(defaultValue = "ALL") String state,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "20") @Positive Integer size) throws ValidationException {
+        log.debug("Запрос на получение бронирований для вещей пользователя {} со статусом {}.", userId, state);
+        return toPage(bookingService.getBookingsByOwner(userId, state, cursor, size), size);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByOwner(@RequestHeader(USER_ID_HEADER) Long userId) {
+        log.debug("Запрос на выгрузку истории бронирований для вещей пользователя {}.", userId);
+        userService.getUserById(userId);
+
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            // Строки разделяются '\n' вручную; разделитель корневых значений по умолчанию — пробел.
+            generator.setRootValueSeparator(null);
+            bookingService.exportBookingsByOwner(userId, booking -> {
+                try {
+                    writer.writeValue(generator, bookingMapper.toBookingDto(booking));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings-" + userId + ".ndjson\"")
+                .body(body);
+    }
+
+    private ResponseEntity<List<BookingDto>> toPage(List<Booking> bookings, int size) {
+        List<BookingDto> body = bookings.stream().map(bookingMapper::toBookingDto).toList();
+        if (bookings.size() < size) {
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, BookingCursor.after(bookings.getLast()).encode())
+                .body(body);
     }
 }
\ No newline at end of file
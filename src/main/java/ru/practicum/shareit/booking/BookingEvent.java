@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Публикуется при создании бронирования и при смене его статуса.
+ * Слушатели с @TransactionalEventListener получают событие только после фиксации транзакции.
+ */
+public record BookingEvent(Long bookingId, Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end,
+                           Status status) {
+
+    public static BookingEvent of(Booking booking) {
+        return new BookingEvent(booking.getId(), booking.getItem().getId(), booking.getBooker().getId(),
+                booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
+}
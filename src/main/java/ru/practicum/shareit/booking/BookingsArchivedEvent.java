@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDate;
+
+/**
+ * Публикуется после переноса бронирований, начавшихся до horizon, из bookings в bookings_archive.
+ * Перенос идёт в обход JPA, без событий по отдельным бронированиям.
+ */
+public record BookingsArchivedEvent(LocalDate horizon) {
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.availability;
+
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+
+public record BusyPeriod(Long bookingId, LocalDateTime start, LocalDateTime end, Status status) {
+}
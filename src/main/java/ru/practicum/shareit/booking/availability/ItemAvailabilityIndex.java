@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingEvent;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingPeriodView;
+import ru.practicum.shareit.booking.repo.BookingRepository;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Расписания вещей в памяти для календаря занятости: интервалы бронирований в статусах WAITING
+ * и APPROVED, которые ещё не закончились. Расписание загружается из БД при первом запросе календаря
+ * и дальше обновляется событиями бронирований после фиксации; число вещей в памяти ограничено
+ * shareit.availability.max-items, а расписание перечитывается не реже чем раз в
+ * shareit.availability.expire-after-write.
+ * <p>
+ * Индекс локален для экземпляра приложения и не видит бронирований других экземпляров до
+ * перечитывания, поэтому createBooking его не использует: пересечение проверяется только
+ * запросом к bookings под блокировкой строки items.
+ */
+@Slf4j
+@Component
+public class ItemAvailabilityIndex {
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemSchedule> schedules;
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 @Value("${shareit.availability.max-items:10000}") long maxItems,
+                                 @Value("${shareit.availability.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.bookingRepository = bookingRepository;
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * Занятые интервалы вещи, пересекающие [from, to). Расписание хранит только интервалы,
+     * не закончившиеся к моменту загрузки, поэтому окно, начинающееся в прошлом, читается из БД.
+     */
+    public List<BusyPeriod> busy(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (from.isBefore(LocalDateTime.now())) {
+            return bookingRepository.findPeriodsByItemIdBetween(itemId, ACTIVE_STATUSES, from, to).stream()
+                    .map(ItemAvailabilityIndex::toPeriod)
+                    .toList();
+        }
+        return schedules.get(itemId, this::load).busy(from, to);
+    }
+
+    /**
+     * Расписание меняется только после фиксации: загрузка расписания и обновление по событию
+     * выполняются атомарно для вещи, поэтому загрузка, прочитавшая БД до фиксации, не затирает
+     * зафиксированное бронирование. Откаченные бронирования в расписание не попадают.
+     */
+    @TransactionalEventListener
+    public void onBookingSaved(BookingEvent event) {
+        schedules.asMap().computeIfPresent(event.itemId(), (itemId, schedule) ->
+                ACTIVE_STATUSES.contains(event.status())
+                        ? schedule.with(new BusyPeriod(event.bookingId(), event.start(), event.end(), event.status()))
+                        : schedule.without(event.bookingId()));
+    }
+
+    /**
+     * Бронирования удалённого пользователя и бронирования его вещей удаляются каскадом в БД,
+     * без событий по отдельным бронированиям, поэтому сбрасываются все расписания.
+     */
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        schedules.invalidateAll();
+    }
+
+    private ItemSchedule load(Long itemId) {
+        List<BusyPeriod> periods = bookingRepository.findPeriodsByItemId(itemId, ACTIVE_STATUSES, LocalDateTime.now()).stream()
+                .map(ItemAvailabilityIndex::toPeriod)
+                .toList();
+        log.debug("Загружено расписание вещи {}: {} интервалов.", itemId, periods.size());
+        return periods.isEmpty() ? ItemSchedule.EMPTY : ItemSchedule.of(periods);
+    }
+
+    private static BusyPeriod toPeriod(BookingPeriodView view) {
+        return new BusyPeriod(view.getId(), view.getStart(), view.getEnd(), view.getStatus());
+    }
+}
@@ -0,0 +1,181 @@
+package ru.practicum.shareit.booking.availability;
+
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Неизменяемое расписание вещи: интервалы активных бронирований на примитивных массивах,
+ * отсортированные по началу. maxEnds[i] — наибольший конец среди первых i + 1 интервалов,
+ * поэтому проверка пересечения с [from, to) — один двоичный поиск.
+ * Время хранится в микросекундах от эпохи, как и точность TIMESTAMP в БД.
+ */
+final class ItemSchedule {
+    static final ItemSchedule EMPTY = new ItemSchedule(new long[0], new long[0], new long[0], new Status[0]);
+    private static final long MICROS_PER_SECOND = 1_000_000;
+    private static final int NANOS_PER_MICRO = 1_000;
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] ids;
+    private final Status[] statuses;
+    private final long[] maxEnds;
+
+    private ItemSchedule(long[] starts, long[] ends, long[] ids, Status[] statuses) {
+        this.starts = starts;
+        this.ends = ends;
+        this.ids = ids;
+        this.statuses = statuses;
+        this.maxEnds = new long[ends.length];
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    static ItemSchedule of(List<BusyPeriod> periods) {
+        List<BusyPeriod> sorted = periods.stream()
+                .sorted(Comparator.comparing(BusyPeriod::start).thenComparing(BusyPeriod::bookingId))
+                .toList();
+        long[] starts = new long[sorted.size()];
+        long[] ends = new long[sorted.size()];
+        long[] ids = new long[sorted.size()];
+        Status[] statuses = new Status[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            BusyPeriod period = sorted.get(i);
+            starts[i] = toMicros(period.start());
+            ends[i] = toMicros(period.end());
+            ids[i] = period.bookingId();
+            statuses[i] = period.status();
+        }
+        return new ItemSchedule(starts, ends, ids, statuses);
+    }
+
+    boolean isFree(LocalDateTime from, LocalDateTime to) {
+        int before = startingBefore(toMicros(to));
+        return before == 0 || maxEnds[before - 1] <= toMicros(from);
+    }
+
+    List<BusyPeriod> busy(LocalDateTime from, LocalDateTime to) {
+        long fromMicros = toMicros(from);
+        int before = startingBefore(toMicros(to));
+        int first = firstEndingAfter(fromMicros, before);
+        List<BusyPeriod> result = new ArrayList<>();
+        for (int i = first; i < before; i++) {
+            if (ends[i] > fromMicros) {
+                result.add(period(i));
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * Копия расписания с добавленным или обновлённым бронированием.
+     */
+    ItemSchedule with(BusyPeriod period) {
+        ItemSchedule base = without(period.bookingId());
+        long start = toMicros(period.start());
+        int pos = base.startingBefore(start);
+        while (pos < base.size() && base.starts[pos] == start && base.ids[pos] < period.bookingId()) {
+            pos++;
+        }
+        return new ItemSchedule(
+                insert(base.starts, pos, start),
+                insert(base.ends, pos, toMicros(period.end())),
+                insert(base.ids, pos, period.bookingId()),
+                insert(base.statuses, pos, period.status()));
+    }
+
+    ItemSchedule without(long bookingId) {
+        int pos = -1;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == bookingId) {
+                pos = i;
+                break;
+            }
+        }
+        if (pos < 0) {
+            return this;
+        }
+        return new ItemSchedule(remove(starts, pos), remove(ends, pos), remove(ids, pos), remove(statuses, pos));
+    }
+
+    private BusyPeriod period(int i) {
+        return new BusyPeriod(ids[i], fromMicros(starts[i]), fromMicros(ends[i]), statuses[i]);
+    }
+
+    private int startingBefore(long micros) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < micros) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int firstEndingAfter(long micros, int limit) {
+        int low = 0;
+        int high = limit;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxEnds[mid] > micros) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + time.getNano() / NANOS_PER_MICRO;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * NANOS_PER_MICRO, ZoneOffset.UTC);
+    }
+
+    private static long[] insert(long[] values, int pos, long value) {
+        long[] result = new long[values.length + 1];
+        System.arraycopy(values, 0, result, 0, pos);
+        result[pos] = value;
+        System.arraycopy(values, pos, result, pos + 1, values.length - pos);
+        return result;
+    }
+
+    private static Status[] insert(Status[] values, int pos, Status value) {
+        Status[] result = new Status[values.length + 1];
+        System.arraycopy(values, 0, result, 0, pos);
+        result[pos] = value;
+        System.arraycopy(values, pos, result, pos + 1, values.length - pos);
+        return result;
+    }
+
+    private static long[] remove(long[] values, int pos) {
+        long[] result = Arrays.copyOf(values, values.length - 1);
+        System.arraycopy(values, pos + 1, result, pos, values.length - pos - 1);
+        return result;
+    }
+
+    private static Status[] remove(Status[] values, int pos) {
+        Status[] result = Arrays.copyOf(values, values.length - 1);
+        System.arraycopy(values, pos + 1, result, pos, values.length - pos - 1);
+        return result;
+    }
+}
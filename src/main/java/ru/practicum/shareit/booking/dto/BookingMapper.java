@@ -1,11 +1,21 @@
 package ru.practicum.shareit.booking.dto;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.user.dto.UserMapper;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = {ItemMapper.class, UserMapper.class})
 public interface BookingMapper {
     BookingDto toBookingDto(Booking booking);
 
     Booking toBooking(BookingDto bookingDto);
+
+    @Mapping(source = "booker.id", target = "bookerId")
+    BookingItemDto toBookingItemDto(Booking booking);
+
+    BookingItemDto toBookingItemDto(BookingShortView booking);
+
+    BookingItemDto toBookingItemDto(Long id, Long bookerId);
 }
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.repo;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Функции JPQL для запросов по периоду бронирования [start, end_time) относительно момента времени:
+ * period_contains, period_before и period_after. На PostgreSQL они раскрываются в операторы
+ * диапазонов над tsrange(start, end_time) и обслуживаются GiST-индексами по этому выражению,
+ * на остальных СУБД — в обычные сравнения с теми же границами.
+ * Регистрируется через META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ */
+public class BookingPeriodFunctions implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        boolean ranges = functionContributions.getDialect() instanceof PostgreSQLDialect;
+        register(functionContributions, "period_contains", ranges
+                ? "tsrange(?1, ?2) @> cast(?3 as timestamp)"
+                : "(?1 <= ?3 and ?2 > ?3)");
+        register(functionContributions, "period_before", ranges
+                ? "tsrange(?1, ?2) << tsrange(cast(?3 as timestamp), null)"
+                : "(?2 <= ?3)");
+        register(functionContributions, "period_after", ranges
+                ? "tsrange(?1, ?2) >> tsrange(null, cast(?3 as timestamp), '[]')"
+                : "(?1 > ?3)");
+    }
+
+    private static void register(FunctionContributions functionContributions, String name, String pattern) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.BOOLEAN);
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder(name, pattern)
+                .setExactArgumentCount(3)
+                .setInvariantType(booleanType)
+                .register();
+    }
+}
@@ -1,40 +1,154 @@
 package ru.practicum.shareit.booking.repo;
 
-import org.springframework.data.domain.Sort;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingPeriodView;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findByBookerId(Long bookerId, Sort sort);
-
-    List<Booking> findByBookerIdAndStatus(Long bookerId, Status status, Sort sort);
-
-    List<Booking> findByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime now, Sort sort);
-
-    List<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime now, LocalDateTime nowAgain, Sort sort);
-
-    List<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime now, Sort sort);
-
-    List<Booking> findByItemOwnerId(Long ownerId, Sort sort);
-
-    List<Booking> findByItemOwnerIdAndStatus(Long ownerId, Status status, Sort sort);
-
-    List<Booking> findByItemOwnerIdAndEndIsBefore(Long ownerId, LocalDateTime now, Sort sort);
-
-    List<Booking> findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(Long ownerId, LocalDateTime now, LocalDateTime nowAgain, Sort sort);
-
-    List<Booking> findByItemOwnerIdAndStartIsAfter(Long ownerId, LocalDateTime now, Sort sort);
-
-    List<Booking> findByBookerIdAndItem_IdAndEndIsBefore(Long userId, Long itemId, LocalDateTime now);
-
-    List<Booking> findByItem_IdAndStartIsBeforeAndStatus(Long itemId, LocalDateTime now, Status status, Sort sort);
-
-    List<Booking> findByItem_IdAndStartIsAfterAndStatus(Long itemId, LocalDateTime now, Status status, Sort sort);
-}
\ No newline at end of file
+    String AFTER_CURSOR = " and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId))" +
+            " order by b.start desc, b.id desc";
+
+    @Override
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @Query("select b from Booking b where b.booker.id = :bookerId" + AFTER_CURSOR)
+    List<Booking> findByBookerId(Long bookerId, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @Query("select b from Booking b where b.booker.id = :bookerId and b.status = :status" + AFTER_CURSOR)
+    List<Booking> findByBookerIdAndStatus(Long bookerId, Status status, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    /**
+     * PAST, CURRENT и FUTURE считаются по полуинтервалу [start, end): бронирование, закончившееся
+     * ровно в now, уже прошло, а начавшееся в now — текущее. Функции period_* описаны в BookingPeriodFunctions.
+     * Дополнительные условия на start нужны PostgreSQL для отсечения помесячных секций bookings:
+     * PAST и CURRENT не читают будущие секции, FUTURE — прошедшие.
+     */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @Query("select b from Booking b where b.booker.id = :bookerId and period_before(b.start, b.end, :now)" +
+            " and b.start < :now" + AFTER_CURSOR)
+    List<Booking> findPastByBookerId(Long bookerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @Query("select b from Booking b where b.booker.id = :bookerId and period_contains(b.start, b.end, :now)" +
+            " and b.start <= :now" + AFTER_CURSOR)
+    List<Booking> findCurrentByBookerId(Long bookerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @Query("select b from Booking b where b.booker.id = :bookerId and period_after(b.start, b.end, :now)" +
+            " and b.start > :now" + AFTER_CURSOR)
+    List<Booking> findFutureByBookerId(Long bookerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @Query("select b from Booking b where b.item.owner.id = :ownerId" + AFTER_CURSOR)
+    List<Booking> findByItemOwnerId(Long ownerId, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    /**
+     * Вся история бронирований вещей владельца для выгрузки. Строки читаются курсором порциями
+     * по fetchSize, поэтому результат нужно обходить внутри транзакции и закрывать после чтения.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select b from Booking b join fetch b.item i join fetch i.owner o join fetch b.booker" +
+            " where o.id = :ownerId order by b.start desc, b.id desc")
+    Stream<Booking> streamByItemOwnerId(Long ownerId);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @Query("select b from Booking b where b.item.owner.id = :ownerId and b.status = :status" + AFTER_CURSOR)
+    List<Booking> findByItemOwnerIdAndStatus(Long ownerId, Status status, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @Query("select b from Booking b where b.item.owner.id = :ownerId and period_before(b.start, b.end, :now)" +
+            " and b.start < :now" + AFTER_CURSOR)
+    List<Booking> findPastByItemOwnerId(Long ownerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @Query("select b from Booking b where b.item.owner.id = :ownerId and period_contains(b.start, b.end, :now)" +
+            " and b.start <= :now" + AFTER_CURSOR)
+    List<Booking> findCurrentByItemOwnerId(Long ownerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @Query("select b from Booking b where b.item.owner.id = :ownerId and period_after(b.start, b.end, :now)" +
+            " and b.start > :now" + AFTER_CURSOR)
+    List<Booking> findFutureByItemOwnerId(Long ownerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    /**
+     * Меняет статус, только если он всё ещё равен expected. Возвращает число изменённых строк,
+     * поэтому из двух параллельных подтверждений проходит только одно.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.status = :status where b.id = :id and b.status = :expected")
+    int updateStatus(Long id, Status expected, Status status);
+
+    @Query("select b.status from Booking b where b.id = :id")
+    Status findStatusById(Long id);
+
+    boolean existsByBookerIdAndItem_IdAndEndIsBefore(Long userId, Long itemId, LocalDateTime now);
+
+    /**
+     * Проверка пересечения при создании бронирования. Выполняется под блокировкой строки items,
+     * поэтому видит бронирования, созданные любым экземпляром приложения.
+     */
+    boolean existsByItem_IdAndStatusInAndStartIsBeforeAndEndIsAfter(Long itemId, Collection<Status> statuses,
+                                                                    LocalDateTime end, LocalDateTime start);
+
+    /**
+     * Ещё не закончившиеся интервалы вещи: прошедшие бронирования не влияют на новые проверки.
+     */
+    @Query("select b.id as id, b.start as start, b.end as end, b.status as status from Booking b" +
+            " where b.item.id = :itemId and b.status in :statuses and b.end > :now")
+    List<BookingPeriodView> findPeriodsByItemId(Long itemId, Collection<Status> statuses, LocalDateTime now);
+
+    @Query("select b.id as id, b.start as start, b.end as end, b.status as status from Booking b" +
+            " where b.item.id = :itemId and b.status in :statuses and b.start < :to and b.end > :from" +
+            " order by b.start asc, b.id asc")
+    List<BookingPeriodView> findPeriodsByItemIdBetween(Long itemId, Collection<Status> statuses,
+                                                       LocalDateTime from, LocalDateTime to);
+
+    @Query("select distinct b.item.id from Booking b where b.item.id in :itemIds and b.status = :status" +
+            " and b.start < :windowEnd and b.end > :windowStart")
+    List<Long> findItemIdsBookedBetween(Collection<Long> itemIds, Status status,
+                                        LocalDateTime windowStart, LocalDateTime windowEnd);
+
+    Optional<Booking> findFirstByItem_IdAndStartIsBeforeAndStatusOrderByStartDesc(Long itemId, LocalDateTime now, Status status);
+
+    Optional<Booking> findFirstByItem_IdAndStartIsAfterAndStatusOrderByStartAsc(Long itemId, LocalDateTime now, Status status);
+
+    @Query(value = "select t.id as \"id\", t.booker_id as \"bookerId\", t.item_id as \"itemId\" from (" +
+            "select b.id, b.booker_id, b.item_id, " +
+            "row_number() over (partition by b.item_id order by b.start desc, b.id desc) as rn " +
+            "from bookings b " +
+            "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start < :now) t " +
+            "where t.rn = 1", nativeQuery = true)
+    List<BookingShortView> findLastApprovedByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query(value = "select t.id as \"id\", t.booker_id as \"bookerId\", t.item_id as \"itemId\" from (" +
+            "select b.id, b.booker_id, b.item_id, " +
+            "row_number() over (partition by b.item_id order by b.start asc, b.id asc) as rn " +
+            "from bookings b " +
+            "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start > :now) t " +
+            "where t.rn = 1", nativeQuery = true)
+    List<BookingShortView> findNextApprovedByItemIds(Collection<Long> itemIds, LocalDateTime now);
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingsArchivedEvent;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Обслуживает помесячные секции таблицы bookings на PostgreSQL (миграция V7): заранее создаёт
+ * секции на months-ahead месяцев вперёд и переносит секции старше retention-months
+ * в сжатую таблицу bookings_archive. Перенесённые бронирования больше не видны в списках
+ * и не дают права оставить отзыв. На других базах, в том числе на H2, секций и архива нет,
+ * и сервис ничего не делает.
+ */
+@Slf4j
+@Service
+public class BookingPartitionService {
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean postgres;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public BookingPartitionService(JdbcTemplate jdbcTemplate,
+                                   ApplicationEventPublisher eventPublisher,
+                                   DataSource dataSource,
+                                   @Value("${shareit.bookings.partitioning.enabled:true}") boolean enabled,
+                                   @Value("${shareit.bookings.partitioning.months-ahead:12}") int monthsAhead,
+                                   @Value("${shareit.bookings.partitioning.retention-months:24}") int retentionMonths)
+            throws MetaDataAccessException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        String url = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getURL);
+        this.postgres = DatabaseDriver.fromJdbcUrl(url) == DatabaseDriver.POSTGRESQL;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * Каждая секция переносится в архив отдельным вызовом bookings_archive_next в своей транзакции,
+     * поэтому эксклюзивная блокировка bookings держится только на время отсоединения одной секции.
+     * Параллельные запуски на нескольких экземплярах разделяет advisory-блокировка в функциях.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.bookings.partitioning.cron:0 30 3 * * *}")
+    public void maintain() {
+        if (!postgres || !enabled) {
+            return;
+        }
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        Date horizon = Date.valueOf(month.minusMonths(retentionMonths));
+        Integer created = jdbcTemplate.queryForObject("select bookings_create_partitions(?, ?)", Integer.class,
+                Date.valueOf(month), Date.valueOf(month.plusMonths(monthsAhead)));
+        int archived = 0;
+        while (jdbcTemplate.queryForObject("select bookings_archive_next(?)", Date.class, horizon) != null) {
+            archived++;
+        }
+        Integer fromDefault = jdbcTemplate.queryForObject("select bookings_archive_default(?)", Integer.class, horizon);
+        log.info("Секции бронирований: создано {}, перенесено в архив {} и {} строк из bookings_default.",
+                created, archived, fromDefault);
+        if (archived > 0 || fromDefault != null && fromDefault > 0) {
+            eventPublisher.publishEvent(new BookingsArchivedEvent(horizon.toLocalDate()));
+        }
+    }
+
+    /**
+     * Архив хранит бронирования вне таблицы bookings, поэтому каскадное удаление их не затрагивает:
+     * бронирования удаляемого пользователя и его вещей убираются из архива в той же транзакции.
+     * Это делается и при выключенном обслуживании секций, если архив уже заполнен.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onUserDeleted(UserDeletedEvent event) {
+        if (!postgres) {
+            return;
+        }
+        Integer purged = jdbcTemplate.queryForObject("select bookings_archive_purge_user(?)", Integer.class,
+                event.userId());
+        log.info("Из архива бронирований удалено {} бронирований пользователя {} и его вещей.", purged, event.userId());
+    }
+}
@@ -1,38 +1,60 @@
 package ru.practicum.shareit.booking.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingEvent;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.availability.BusyPeriod;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repo.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UserException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repo.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class BookingService {
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserService userService;
     private final ItemRepository itemRepository;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public Booking createBooking(Long userId, BookingRequestDto bookingRequestDto) throws ValidationException {
-        User booker = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден."));
+    @Transactional
+    public Booking createBooking(Long userId, BookingRequestDto bookingRequestDto) throws ValidationException, ConflictException {
+        User booker = userService.getUserById(userId);
 
-        Item item = itemRepository.findById(bookingRequestDto.getItemId())
+        Item item = itemRepository.findByIdForUpdate(bookingRequestDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена."));
 
         if (!item.getAvailable()) {
@@ -47,6 +69,11 @@ public class BookingService {
             throw new ValidationException("Некорректные даты бронирования.");
         }
 
+        if (bookingRepository.existsByItem_IdAndStatusInAndStartIsBeforeAndEndIsAfter(item.getId(), ACTIVE_STATUSES,
+                bookingRequestDto.getEnd(), bookingRequestDto.getStart())) {
+            throw new ConflictException("Вещь уже забронирована на эти даты.");
+        }
+
         Booking booking = new Booking();
         booking.setItem(item);
         booking.setBooker(booker);
@@ -54,11 +81,20 @@ public class BookingService {
         booking.setEnd(bookingRequestDto.getEnd());
         booking.setStatus(Status.WAITING);
 
+        Booking savedBooking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingEvent.of(savedBooking));
         log.info("Создано новое бронирование для вещи {} пользователем {}.", item.getId(), userId);
-        return bookingRepository.save(booking);
+        return savedBooking;
     }
 
-    public Booking approveBooking(Long userId, Long bookingId, Boolean approved) throws ValidationException {
+    /**
+     * retry — флаг повтора, а не ключ идемпотентности: ключи запросов не хранятся.
+     * С флагом запрос, чьё решение уже применено (этим или любым другим запросом), возвращает
+     * бронирование без изменений; без флага повторное решение отклоняется.
+     */
+    @Transactional
+    public Booking approveBooking(Long userId, Long bookingId, Boolean approved, boolean retry)
+            throws ValidationException, ConflictException {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование не найдено."));
 
@@ -66,17 +102,50 @@ public class BookingService {
             throw new UserException("Только владелец вещи может подтверждать бронирование.");
         }
 
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        if (retry && booking.getStatus() == status) {
+            log.debug("Повторный запрос для бронирования {} не меняет статус.", bookingId);
+            return booking;
+        }
+
         if (!booking.getStatus().equals(Status.WAITING)) {
             throw new ValidationException("Статус бронирования уже был изменён.");
         }
 
-        if (approved) {
-            booking.setStatus(Status.APPROVED);
-        } else {
-            booking.setStatus(Status.REJECTED);
+        boolean updated = bookingRepository.updateStatus(bookingId, Status.WAITING, status) == 1;
+        if (!updated && (!retry || bookingRepository.findStatusById(bookingId) != status)) {
+            throw new ConflictException("Статус бронирования был изменён параллельным запросом.");
+        }
+
+        booking.setStatus(status);
+        if (updated) {
+            eventPublisher.publishEvent(BookingEvent.of(booking));
         }
         log.info("Бронирование с id {} было {} владельцем {}.", bookingId, approved ? "подтверждено" : "отклонено", userId);
-        return bookingRepository.save(booking);
+        return booking;
+    }
+
+    /**
+     * Занятые интервалы вещи в [from, to) для календаря. Учитываются бронирования
+     * в статусах WAITING и APPROVED, как и при проверке пересечения в createBooking.
+     */
+    public ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to)
+            throws ValidationException {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше конца.");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь не найдена.");
+        }
+
+        List<BusyPeriod> busy = availabilityIndex.busy(itemId, from, to);
+        ItemAvailabilityDto availability = new ItemAvailabilityDto();
+        availability.setItemId(itemId);
+        availability.setFrom(from);
+        availability.setTo(to);
+        availability.setFree(busy.isEmpty());
+        availability.setBusy(busy);
+        return availability;
     }
 
     public Booking getBookingById(Long userId, Long bookingId) {
@@ -90,11 +159,13 @@ public class BookingService {
         return booking;
     }
 
-    public List<Booking> getBookingsByUser(Long userId, String state) throws ValidationException {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден."));
+    public List<Booking> getBookingsByUser(Long userId, String state, String cursor, int size) throws ValidationException {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден.");
+        }
 
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        BookingCursor after = BookingCursor.parse(cursor);
+        Pageable page = PageRequest.of(0, size);
         LocalDateTime now = LocalDateTime.now();
         BookingState bookingState;
         try {
@@ -105,27 +176,29 @@ public class BookingService {
 
         switch (bookingState) {
             case ALL:
-                return bookingRepository.findByBookerId(userId, sort);
+                return bookingRepository.findByBookerId(userId, after.start(), after.id(), page);
             case CURRENT:
-                return bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(userId, now, now, sort);
+                return bookingRepository.findCurrentByBookerId(userId, now, after.start(), after.id(), page);
             case PAST:
-                return bookingRepository.findByBookerIdAndEndIsBefore(userId, now, sort);
+                return bookingRepository.findPastByBookerId(userId, now, after.start(), after.id(), page);
             case FUTURE:
-                return bookingRepository.findByBookerIdAndStartIsAfter(userId, now, sort);
+                return bookingRepository.findFutureByBookerId(userId, now, after.start(), after.id(), page);
             case WAITING:
-                return bookingRepository.findByBookerIdAndStatus(userId, Status.WAITING, sort);
+                return bookingRepository.findByBookerIdAndStatus(userId, Status.WAITING, after.start(), after.id(), page);
             case REJECTED:
-                return bookingRepository.findByBookerIdAndStatus(userId, Status.REJECTED, sort);
+                return bookingRepository.findByBookerIdAndStatus(userId, Status.REJECTED, after.start(), after.id(), page);
             default:
                 throw new IllegalStateException("Unexpected state: " + bookingState);
         }
     }
 
-    public List<Booking> getBookingsByOwner(Long userId, String state) throws ValidationException {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден."));
+    public List<Booking> getBookingsByOwner(Long userId, String state, String cursor, int size) throws ValidationException {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден.");
+        }
 
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        BookingCursor after = BookingCursor.parse(cursor);
+        Pageable page = PageRequest.of(0, size);
         LocalDateTime now = LocalDateTime.now();
         BookingState bookingState;
         try {
@@ -136,19 +209,39 @@ public class BookingService {
 
         switch (bookingState) {
             case ALL:
-                return bookingRepository.findByItemOwnerId(userId, sort);
+                return bookingRepository.findByItemOwnerId(userId, after.start(), after.id(), page);
             case CURRENT:
-                return bookingRepository.findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(userId, now, now, sort);
+                return bookingRepository.findCurrentByItemOwnerId(userId, now, after.start(), after.id(), page);
             case PAST:
-                return bookingRepository.findByItemOwnerIdAndEndIsBefore(userId, now, sort);
+                return bookingRepository.findPastByItemOwnerId(userId, now, after.start(), after.id(), page);
             case FUTURE:
-                return bookingRepository.findByItemOwnerIdAndStartIsAfter(userId, now, sort);
+                return bookingRepository.findFutureByItemOwnerId(userId, now, after.start(), after.id(), page);
             case WAITING:
-                return bookingRepository.findByItemOwnerIdAndStatus(userId, Status.WAITING, sort);
+                return bookingRepository.findByItemOwnerIdAndStatus(userId, Status.WAITING, after.start(), after.id(), page);
             case REJECTED:
-                return bookingRepository.findByItemOwnerIdAndStatus(userId, Status.REJECTED, sort);
+                return bookingRepository.findByItemOwnerIdAndStatus(userId, Status.REJECTED, after.start(), after.id(), page);
             default:
                 throw new IllegalStateException("Unexpected state: " + bookingState);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Передаёт все бронирования вещей владельца в consumer по одному, не собирая их в список.
+     * Контекст персистентности очищается каждые EXPORT_CLEAR_INTERVAL строк, поэтому consumer
+     * не должен сохранять ссылки на полученные бронирования.
+     */
+    public long exportBookingsByOwner(Long userId, Consumer<Booking> consumer) {
+        long rows = 0;
+        try (Stream<Booking> bookings = bookingRepository.streamByItemOwnerId(userId)) {
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                if (++rows % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        log.info("Выгружено {} бронирований владельца {}.", rows, userId);
+        return rows;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Кэш пользователей. Размер и время жизни задаются в spring.cache.caffeine.spec,
+ * статистика попаданий публикуется в actuator как метрики cache.gets, cache.puts и cache.evictions.
+ * <p>
+ * Кэши работают с транзакциями: запись и сброс внутри транзакции выполняются после её фиксации,
+ * поэтому параллельный запрос не вернёт в кэш строку, которую транзакция ещё меняет, а откат
+ * не сбрасывает кэш. Вещи не кэшируются: они читаются запросами с entity graph и сводками,
+ * которые кэш одной вещи не заменяет.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+    public static final String USERS = "users";
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties properties) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.setCacheSpecification(properties.getCaffeine().getSpec());
+        caffeine.setCacheNames(properties.getCacheNames());
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
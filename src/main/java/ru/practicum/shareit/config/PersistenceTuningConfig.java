@@ -0,0 +1,56 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Настройки пулов соединений, не выразимые через application.properties.
+ * Если maximum-pool-size не задан, размер пула считается по числу ядер (ядра * 2 + 1, формула HikariCP).
+ * Для PostgreSQL драйверу включается переписывание пакетных вставок в многострочный INSERT
+ * и увеличивается кэш серверных подготовленных запросов; явно заданные свойства не меняются.
+ */
+@Slf4j
+@Configuration
+public class PersistenceTuningConfig {
+    private static final Map<String, String> POSTGRES_PROPERTIES = Map.of(
+            "reWriteBatchedInserts", "true",
+            "prepareThreshold", "3",
+            "preparedStatementCacheQueries", "512",
+            "preparedStatementCacheSizeMiB", "16");
+
+    public static int defaultPoolSize() {
+        return Runtime.getRuntime().availableProcessors() * 2 + 1;
+    }
+
+    @Bean
+    public static BeanPostProcessor hikariTuningPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    tune(dataSource, beanName);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static void tune(HikariDataSource dataSource, String beanName) {
+        if (dataSource.getMaximumPoolSize() < 1) {
+            dataSource.setMaximumPoolSize(defaultPoolSize());
+        }
+        String url = dataSource.getJdbcUrl();
+        if (url != null && url.startsWith("jdbc:postgresql:")) {
+            Properties properties = dataSource.getDataSourceProperties();
+            POSTGRES_PROPERTIES.forEach(properties::putIfAbsent);
+        }
+        log.info("Пул {}: до {} соединений, свойства драйвера {}.",
+                beanName, dataSource.getMaximumPoolSize(), dataSource.getDataSourceProperties());
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Фоновые задачи: пересчёт сводок по вещам (ItemBookingSummaryService)
+ * и обслуживание секций бронирований (BookingPartitionService).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
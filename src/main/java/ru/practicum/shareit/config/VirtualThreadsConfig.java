@@ -0,0 +1,50 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Режим виртуальных потоков: spring.threads.virtual.enabled=true переводит Tomcat и @Async
+ * на виртуальные потоки, а доступ к пулам соединений ограничивается ConnectionLimitingDataSource.
+ * Ограничитель ставится перед каждым пулом Hikari (основным и репликой) и пропускает
+ * столько потоков, сколько соединений в этом пуле.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingPostProcessor(
+            @Value("${shareit.jdbc.acquire-timeout:30s}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    return new ConnectionLimitingDataSource(dataSource, beanName, dataSource.getMaximumPoolSize(), acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Метрики ограничителей: бины пулов заменены обёртками уже после создания,
+     * поэтому они находятся по типу экземпляра, а не объявленному типу бина.
+     */
+    @Bean
+    public MeterBinder connectionLimiterMetrics(ListableBeanFactory beanFactory) {
+        return registry -> beanFactory.getBeansOfType(DataSource.class).values().stream()
+                .filter(ConnectionLimitingDataSource.class::isInstance)
+                .map(ConnectionLimitingDataSource.class::cast)
+                .forEach(limiter -> limiter.bindTo(registry));
+    }
+}
@@ -1,19 +1,29 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.CommentService;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
+@Validated
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
@@ -22,8 +32,11 @@ public class ItemController {
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
     private final CommentService commentService;
+    private final ItemImportService itemImportService;
+    private final BookingService bookingService;
 
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @PostMapping
     public ResponseEntity<ItemDto> addItem(@RequestHeader("X-Sharer-User-Id") Long userId, @Valid @RequestBody ItemDto itemDto) {
@@ -32,6 +45,11 @@ public class ItemController {
         return ResponseEntity.status(HttpStatus.CREATED).body(itemMapper.toDto(createdItem));
     }
 
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    public ItemImportResultDto importItems(@RequestHeader(USER_ID_HEADER) Long userId, InputStream body) throws IOException {
+        return itemImportService.importItems(userId, body);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<ItemDto> updateItem(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId, @RequestBody ItemDto itemDto) {
         Item itemToUpdate = itemMapper.toItem(itemDto);
@@ -45,15 +63,36 @@ public class ItemController {
         return itemService.getItemById(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable Long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) throws ValidationException {
+        return bookingService.getItemAvailability(itemId, from, to);
+    }
+
     @GetMapping
-    public ResponseEntity<List<ItemDto>> getOwnersItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        List<ItemDto> items = itemService.getItemsByOwner(userId).stream().map(itemMapper::toDto).collect(Collectors.toList());
-        return ResponseEntity.ok(items);
+    public ResponseEntity<List<ItemWithBookingsAndCommentsDto>> getOwnersItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                               @RequestParam(defaultValue = "0") @PositiveOrZero Long cursor,
+                                                                               @RequestParam(defaultValue = "20") @Positive Integer size) {
+        List<ItemWithBookingsAndCommentsDto> items = itemService.getItemsByOwner(userId, cursor, size);
+        if (items.size() < size) {
+            return ResponseEntity.ok(items);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(items.getLast().getId()))
+                .body(items);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<ItemDto>> searchItems(@RequestParam String text) {
-        List<ItemDto> foundItems = itemService.searchItems(text).stream().map(itemMapper::toDto).collect(Collectors.toList());
+    public ResponseEntity<List<ItemDto>> searchItems(@RequestParam String text,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                     @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                     @RequestParam(defaultValue = "20") @Positive Integer size) throws ValidationException {
+        List<Item> items = start == null && end == null
+                ? itemService.searchItems(text, from, size)
+                : itemService.searchFreeItems(text, start, end, from, size);
+        List<ItemDto> foundItems = items.stream().map(itemMapper::toDto).collect(Collectors.toList());
         return ResponseEntity.ok(foundItems);
     }
 
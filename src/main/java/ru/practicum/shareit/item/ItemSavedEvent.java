@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Публикуется при добавлении (created) и редактировании вещи.
+ * Слушатели с @TransactionalEventListener получают событие только после фиксации транзакции.
+ */
+public record ItemSavedEvent(Item item, boolean created) {
+}
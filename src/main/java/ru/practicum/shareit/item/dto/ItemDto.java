@@ -20,5 +20,5 @@ public class ItemDto {
 
     private Integer ownerId;
 
-    private Integer requestId;
+    private Long requestId;
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ItemImportResultDto {
+    private int imported;
+    private int failed;
+    private long durationMs;
+    private long itemsPerSecond;
+    private List<ItemImportErrorDto> errors = new ArrayList<>();
+}
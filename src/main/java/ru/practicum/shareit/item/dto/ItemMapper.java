@@ -2,8 +2,7 @@ package ru.practicum.shareit.item.dto;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
@@ -21,5 +20,5 @@ public interface ItemMapper {
     @Mapping(target = "nextBooking", source = "nextBooking")
     @Mapping(target = "comments", source = "comments")
     @Mapping(source = "item.owner.id", target = "ownerId")
-    ItemWithBookingsAndCommentsDto toItemWithBookingsAndCommentsDto(Item item, Booking lastBooking, Booking nextBooking, List<Comment> comments);
+    ItemWithBookingsAndCommentsDto toItemWithBookingsAndCommentsDto(Item item, BookingItemDto lastBooking, BookingItemDto nextBooking, List<CommentDto> comments);
 }
\ No newline at end of file
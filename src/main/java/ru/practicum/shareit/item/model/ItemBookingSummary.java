@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Предрасчитанные последнее и ближайшее подтверждённые бронирования вещи.
+ * Поддерживается ItemBookingSummaryService; nextBookingStart нужен планировщику, чтобы
+ * вовремя перенести начавшееся бронирование из «ближайшего» в «последнее».
+ */
+@Data
+@Entity
+@Table(name = "item_booking_summary")
+public class ItemBookingSummary {
+    @Id
+    private Long itemId;
+    private Long lastBookingId;
+    private Long lastBookerId;
+    private Long nextBookingId;
+    private Long nextBookerId;
+    private LocalDateTime nextBookingStart;
+
+    public boolean isFreshAt(LocalDateTime now) {
+        return nextBookingStart == null || nextBookingStart.isAfter(now);
+    }
+}
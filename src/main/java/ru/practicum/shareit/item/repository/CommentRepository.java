@@ -1,13 +1,20 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItem_Id(Long itemId);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findByItem_IdIn(Collection<Long> itemIds);
+
+}
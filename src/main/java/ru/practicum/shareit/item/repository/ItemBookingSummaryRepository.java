@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Query("select s.itemId from ItemBookingSummary s where s.nextBookingStart <= :now and s.itemId > :afterId" +
+            " order by s.itemId")
+    List<Long> findItemIdsWithStartedNextBooking(LocalDateTime now, Long afterId, Limit limit);
+
+    /**
+     * Сводки, ссылающиеся на бронирования пользователя. После удаления пользователя эти
+     * бронирования удалены каскадом, и сводки нужно пересчитать.
+     */
+    @Query("select s.itemId from ItemBookingSummary s where (s.lastBookerId = :bookerId or s.nextBookerId = :bookerId)" +
+            " and s.itemId > :afterId order by s.itemId")
+    List<Long> findItemIdsBookedBy(Long bookerId, Long afterId, Limit limit);
+
+    /**
+     * Сводки, чьё последнее бронирование больше не лежит в bookings (перенесено в архив).
+     */
+    @Query("select s.itemId from ItemBookingSummary s where s.lastBookingId is not null and s.itemId > :afterId" +
+            " and not exists (select 1 from Booking b where b.id = s.lastBookingId) order by s.itemId")
+    List<Long> findItemIdsWithMissingLastBooking(Long afterId, Limit limit);
+
+    /**
+     * Пустые сводки новых вещей одним запросом: бронирований у них ещё нет.
+     */
+    @Modifying
+    @Query(value = "insert into item_booking_summary (item_id) select i.id from items i where i.id in :itemIds",
+            nativeQuery = true)
+    void insertEmpty(Collection<Long> itemIds);
+}
@@ -1,8 +1,90 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemAnswerView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-}
\ No newline at end of file
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :id")
+    Optional<Item> findByIdForUpdate(Long id);
+
+    List<Item> findByOwnerIdAndIdGreaterThanOrderByIdAsc(Long ownerId, Long id, Limit limit);
+
+    List<Item> findByAvailableTrueAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Вещи, добавленные в ответ на запросы, одним запросом по индексу items.request_id.
+     */
+    @Query("select i.id as id, i.name as name, i.owner.id as ownerId, i.requestId as requestId " +
+            "from Item i where i.requestId in :requestIds order by i.id")
+    List<ItemAnswerView> findAnswersByRequestIdIn(Collection<Long> requestIds);
+
+    /**
+     * Поиск по подстроке в названии и описании доступных вещей для H2.
+     * Совпадения по названию идут первыми. На PostgreSQL используется {@link #searchRanked}.
+     */
+    @Query("select i from Item i " +
+            "where i.available = true " +
+            "and (lower(i.name) like concat('%', :text, '%') escape '\\' " +
+            "or lower(i.description) like concat('%', :text, '%') escape '\\') " +
+            "order by case when lower(i.name) like concat('%', :text, '%') escape '\\' then 0 else 1 end, i.id")
+    List<Item> search(String text, Pageable pageable);
+
+    /**
+     * Тот же поиск, из которого исключены вещи с подтверждённым бронированием, пересекающим
+     * [windowStart, windowEnd). Антисоединение проверяет каждую найденную вещь одним обращением
+     * к индексу idx_bookings_item_approved_period.
+     */
+    @Query("select i from Item i " +
+            "where i.available = true " +
+            "and (lower(i.name) like concat('%', :text, '%') escape '\\' " +
+            "or lower(i.description) like concat('%', :text, '%') escape '\\') " +
+            "and not exists (select b.id from Booking b where b.item = i " +
+            "and b.status = ru.practicum.shareit.booking.Status.APPROVED " +
+            "and b.start < :windowEnd and b.end > :windowStart) " +
+            "order by case when lower(i.name) like concat('%', :text, '%') escape '\\' then 0 else 1 end, i.id")
+    List<Item> searchFree(String text, LocalDateTime windowStart, LocalDateTime windowEnd, Pageable pageable);
+
+    /**
+     * Поиск для PostgreSQL: подстрока в названии или описании либо похожее название (оператор % из
+     * pg_trgm), с сортировкой по similarity() с названием, затем по word_similarity() с описанием.
+     * Все условия обслуживаются частичными GIN-индексами idx_items_name_trgm и idx_items_description_trgm.
+     * text экранирован для like, query — тот же текст в нижнем регистре без экранирования.
+     */
+    @Query(value = "select i.* from items i " +
+            "where i.available " +
+            "and (lower(i.name) like '%' || :text || '%' escape '\\' " +
+            "or lower(i.description) like '%' || :text || '%' escape '\\' " +
+            "or lower(i.name) % :query) " +
+            "order by similarity(lower(i.name), :query) desc, " +
+            "word_similarity(:query, lower(i.description)) desc, i.id", nativeQuery = true)
+    List<Item> searchRanked(String text, String query, Pageable pageable);
+
+    /**
+     * searchRanked без вещей с подтверждённым бронированием, пересекающим [windowStart, windowEnd).
+     */
+    @Query(value = "select i.* from items i " +
+            "where i.available " +
+            "and (lower(i.name) like '%' || :text || '%' escape '\\' " +
+            "or lower(i.description) like '%' || :text || '%' escape '\\' " +
+            "or lower(i.name) % :query) " +
+            "and not exists (select 1 from bookings b where b.item_id = i.id and b.status = 'APPROVED' " +
+            "and b.start < :windowEnd and b.end_time > :windowStart) " +
+            "order by similarity(lower(i.name), :query) desc, " +
+            "word_similarity(:query, lower(i.description)) desc, i.id", nativeQuery = true)
+    List<Item> searchFreeRanked(String text, String query, LocalDateTime windowStart, LocalDateTime windowEnd,
+                                Pageable pageable);
+}
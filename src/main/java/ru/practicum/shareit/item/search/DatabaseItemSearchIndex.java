@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Поиск запросом к базе. На PostgreSQL результаты ранжируются функциями pg_trgm
+ * (ItemRepository.searchRanked), на остальных базах, то есть на H2, совпадения по названию
+ * просто идут первыми. База определяется по URL соединения так же, как {vendor} в путях миграций Flyway.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "db", matchIfMissing = true)
+public class DatabaseItemSearchIndex implements ItemSearchIndex {
+
+    private final ItemRepository itemRepository;
+    private final boolean trigramRanking;
+
+    public DatabaseItemSearchIndex(ItemRepository itemRepository, DataSource dataSource) throws MetaDataAccessException {
+        this.itemRepository = itemRepository;
+        String url = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getURL);
+        this.trigramRanking = DatabaseDriver.fromJdbcUrl(url) == DatabaseDriver.POSTGRESQL;
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        OffsetPageRequest page = new OffsetPageRequest(from, size);
+        if (trigramRanking) {
+            return itemRepository.searchRanked(escape(text), text.toLowerCase(), page);
+        }
+        return itemRepository.search(escape(text), page);
+    }
+
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        OffsetPageRequest page = new OffsetPageRequest(from, size);
+        if (trigramRanking) {
+            return itemRepository.searchFreeRanked(escape(text), text.toLowerCase(), start, end, page);
+        }
+        return itemRepository.searchFree(escape(text), start, end, page);
+    }
+
+    private static String escape(String text) {
+        return text.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
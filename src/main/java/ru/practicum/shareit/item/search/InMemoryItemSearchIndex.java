@@ -0,0 +1,312 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.repo.BookingRepository;
+import ru.practicum.shareit.item.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный триграммный индекс по названию и описанию доступных вещей.
+ * Строится из БД при старте и обновляется после фиксации добавления и редактирования вещей
+ * и удаления их владельца, поэтому поиск не обращается к таблице items, кроме загрузки
+ * найденной страницы по id.
+ * <p>
+ * Перестроение читает вещи в новый сегмент, пока поиск продолжает работать по текущему.
+ * Изменения, пришедшие за это время, применяются к текущему сегменту и запоминаются, а перед
+ * заменой сегмента повторяются на новом, так что удаление или правка во время перестроения не теряются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchIndex implements ItemSearchIndex {
+    private static final int GRAM = 3;
+    private static final int REBUILD_BATCH = 1000;
+    private static final int FREE_CHECK_BATCH = 500;
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment current = new Segment();
+    private List<Consumer<Segment>> pendingChanges;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment fresh = new Segment();
+        try {
+            long lastId = 0;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(lastId, Limit.of(REBUILD_BATCH));
+                batch.forEach(fresh::add);
+                if (!batch.isEmpty()) {
+                    lastId = batch.getLast().getId();
+                }
+            } while (batch.size() == REBUILD_BATCH);
+            fresh.trim();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int replayed;
+        lock.writeLock().lock();
+        try {
+            replayed = pendingChanges.size();
+            pendingChanges.forEach(change -> change.accept(fresh));
+            pendingChanges = null;
+            current = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс построен за {} мс: вещей {}, триграмм {}, ~{} КБ, повторено изменений {}.",
+                System.currentTimeMillis() - started, fresh.documents.size(), fresh.postings.size(),
+                estimateMemoryBytes() / 1024, replayed);
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        long[] ranked = rank(text.toLowerCase());
+        if (from >= ranked.length) {
+            return new ArrayList<>();
+        }
+        return load(Arrays.stream(ranked, from, Math.min(ranked.length, from + size)).boxed().toList());
+    }
+
+    /**
+     * Найденные вещи проверяются на занятость порциями по FREE_CHECK_BATCH одним запросом на порцию,
+     * пока не наберётся from + size свободных.
+     */
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        long[] ranked = rank(text.toLowerCase());
+        List<Long> free = new ArrayList<>();
+        for (int offset = 0; offset < ranked.length && free.size() < from + size; offset += FREE_CHECK_BATCH) {
+            List<Long> batch = Arrays.stream(ranked, offset, Math.min(ranked.length, offset + FREE_CHECK_BATCH))
+                    .boxed()
+                    .toList();
+            Set<Long> booked = new HashSet<>(bookingRepository.findItemIdsBookedBetween(batch, Status.APPROVED, start, end));
+            batch.stream().filter(id -> !booked.contains(id)).forEach(free::add);
+        }
+        if (from >= free.size()) {
+            return new ArrayList<>();
+        }
+        return load(free.subList(from, Math.min(free.size(), from + size)));
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        index(event.item());
+    }
+
+    /**
+     * Вещи удалённого пользователя удаляются каскадом в БД без отдельных событий,
+     * поэтому из индекса убираются все документы с этим владельцем.
+     */
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        apply(segment -> segment.deleteOwnedBy(event.userId()));
+    }
+
+    @Override
+    public void index(Item item) {
+        apply(segment -> {
+            segment.delete(item.getId());
+            segment.add(item);
+        });
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        apply(segment -> segment.delete(itemId));
+    }
+
+    public long estimateMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (LongPostingList list : current.postings.values()) {
+                bytes += list.capacityBytes() + 64;
+            }
+            for (IndexedText document : current.documents.values()) {
+                bytes += document.name().length() + document.description().length() + 128;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<Segment> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(current);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long[] rank(String query) {
+        LongPostingList nameMatches = new LongPostingList();
+        LongPostingList descriptionMatches = new LongPostingList();
+
+        lock.readLock().lock();
+        try {
+            for (long id : candidates(current, query)) {
+                IndexedText document = current.documents.get(id);
+                if (document.name().contains(query)) {
+                    nameMatches.add(id);
+                } else if (document.description().contains(query)) {
+                    descriptionMatches.add(id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long[] ranked = new long[nameMatches.size() + descriptionMatches.size()];
+        System.arraycopy(nameMatches.toArray(), 0, ranked, 0, nameMatches.size());
+        System.arraycopy(descriptionMatches.toArray(), 0, ranked, nameMatches.size(), descriptionMatches.size());
+        return ranked;
+    }
+
+    private List<Item> load(List<Long> page) {
+        Map<Long, Item> items = itemRepository.findAllById(page).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return page.stream().map(items::get).filter(Objects::nonNull).toList();
+    }
+
+    private static long[] candidates(Segment segment, String query) {
+        if (query.length() < GRAM) {
+            long[] all = segment.documents.keySet().stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(all);
+            return all;
+        }
+
+        List<LongPostingList> lists = new ArrayList<>();
+        for (long gram : grams(query)) {
+            LongPostingList list = segment.postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        long[] result = lists.getFirst().toArray();
+        int count = result.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            LongPostingList list = lists.get(i);
+            int kept = 0;
+            for (int j = 0; j < count; j++) {
+                if (list.contains(result[j])) {
+                    result[kept++] = result[j];
+                }
+            }
+            count = kept;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static long[] grams(String text) {
+        LongPostingList grams = new LongPostingList();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams.toArray();
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase();
+    }
+
+    private record IndexedText(long ownerId, String name, String description) {
+    }
+
+    /**
+     * Триграммы и тексты документов. Изменяется только под блокировкой записи,
+     * кроме нового сегмента при перестроении, пока он не виден поиску.
+     */
+    private static final class Segment {
+        private final Map<Long, LongPostingList> postings = new HashMap<>();
+        private final Map<Long, IndexedText> documents = new HashMap<>();
+
+        void add(Item item) {
+            if (!Boolean.TRUE.equals(item.getAvailable())) {
+                return;
+            }
+            IndexedText document = new IndexedText(item.getOwner().getId(), lower(item.getName()), lower(item.getDescription()));
+            documents.put(item.getId(), document);
+            for (long gram : grams(document.name() + '\n' + document.description())) {
+                postings.computeIfAbsent(gram, key -> new LongPostingList()).add(item.getId());
+            }
+        }
+
+        void delete(Long itemId) {
+            IndexedText document = documents.remove(itemId);
+            if (document == null) {
+                return;
+            }
+            for (long gram : grams(document.name() + '\n' + document.description())) {
+                LongPostingList list = postings.get(gram);
+                if (list != null && list.remove(itemId) && list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+
+        void deleteOwnedBy(long ownerId) {
+            documents.entrySet().stream()
+                    .filter(entry -> entry.getValue().ownerId() == ownerId)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(this::delete);
+        }
+
+        void trim() {
+            postings.values().forEach(LongPostingList::trim);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по подстроке в названии или описании.
+ * Реализация выбирается свойством shareit.search.engine (db или memory).
+ */
+public interface ItemSearchIndex {
+
+    List<Item> search(String text, int from, int size);
+
+    /**
+     * Как search, но только вещи без подтверждённых бронирований, пересекающих [start, end).
+     */
+    List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    default void index(Item item) {
+    }
+
+    default void remove(Long itemId) {
+    }
+}
@@ -2,7 +2,7 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.model.Booking;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.repo.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -12,31 +12,30 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repo.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class CommentService {
 
     private final CommentRepository commentRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
 
+    @Transactional
     public Comment addComment(Long userId, Long itemId, CommentRequestDto commentRequestDto) throws ValidationException {
-        User author = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден."));
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Вещь не найдена."));
+        User author = userService.getUserById(userId);
 
-        List<Booking> userBookings = bookingRepository.findByBookerIdAndItem_IdAndEndIsBefore(userId, itemId, LocalDateTime.now());
-
-        if (userBookings.isEmpty()) {
+        if (!bookingRepository.existsByBookerIdAndItem_IdAndEndIsBefore(userId, itemId, LocalDateTime.now())) {
+            if (!itemRepository.existsById(itemId)) {
+                throw new NotFoundException("Вещь не найдена.");
+            }
             throw new ValidationException("Пользователь не может оставлять комментарии, так как не брал вещь в аренду.");
         }
+        Item item = itemRepository.getReferenceById(itemId);
 
         Comment comment = new Comment();
         comment.setText(commentRequestDto.getText());
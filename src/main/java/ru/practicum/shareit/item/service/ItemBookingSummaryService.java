@@ -0,0 +1,189 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingEvent;
+import ru.practicum.shareit.booking.BookingsArchivedEvent;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repo.BookingRepository;
+import ru.practicum.shareit.item.ItemSavedEvent;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+
+/**
+ * Поддерживает таблицу item_booking_summary. Пустая строка создаётся вместе с вещью, а строки
+ * существовавших вещей заполнила миграция V2. Строка пересчитывается после фиксации подтверждения
+ * бронирования, после удаления пользователя, чьи бронирования она упоминает, и после переноса
+ * старых бронирований в архив. Планировщик сдвигает начавшиеся «ближайшие» бронирования
+ * в «последние» и повторяет неудавшиеся пересчёты.
+ */
+@Slf4j
+@Service
+public class ItemBookingSummaryService {
+    private static final int REFRESH_BATCH = 1000;
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate requiresNew;
+    private final Set<Long> failed = ConcurrentHashMap.newKeySet();
+
+    public ItemBookingSummaryService(ItemBookingSummaryRepository summaryRepository,
+                                     ItemRepository itemRepository,
+                                     BookingRepository bookingRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Строки новых вещей создаются перед фиксацией той же транзакции, одним запросом на все вещи
+     * транзакции, чтобы порция импорта не превращалась в отдельную вставку на каждую вещь.
+     * Вне транзакции событие, как и у BEFORE_COMMIT-слушателя, игнорируется.
+     */
+    @EventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        if (!event.created() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Long> created = (List<Long>) TransactionSynchronizationManager.getResource(this);
+        if (created == null) {
+            List<Long> itemIds = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, itemIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    summaryRepository.insertEmpty(itemIds);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(ItemBookingSummaryService.this);
+                }
+            });
+            created = itemIds;
+        }
+        created.add(event.item().getId());
+    }
+
+    @TransactionalEventListener
+    public void onBooking(BookingEvent event) {
+        if (event.status() == Status.APPROVED) {
+            refreshQuietly(event.itemId());
+        }
+    }
+
+    /**
+     * Бронирования удалённого пользователя удалены каскадом, поэтому пересчитываются сводки,
+     * в которых он указан последним или ближайшим арендатором. Сводки его вещей удалены вместе с ними.
+     */
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        int refreshed = refreshAll(afterId ->
+                summaryRepository.findItemIdsBookedBy(event.userId(), afterId, Limit.of(REFRESH_BATCH)));
+        log.debug("Пересчитано сводок по вещам после удаления пользователя {}: {}.", event.userId(), refreshed);
+    }
+
+    @EventListener
+    public void onBookingsArchived(BookingsArchivedEvent event) {
+        int refreshed = refreshAll(afterId ->
+                summaryRepository.findItemIdsWithMissingLastBooking(afterId, Limit.of(REFRESH_BATCH)));
+        log.info("Пересчитано сводок по вещам после переноса бронирований до {} в архив: {}.", event.horizon(), refreshed);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.summary.refresh-interval-ms:60000}")
+    public void advance() {
+        LocalDateTime now = LocalDateTime.now();
+        int started = refreshAll(afterId ->
+                summaryRepository.findItemIdsWithStartedNextBooking(now, afterId, Limit.of(REFRESH_BATCH)));
+        List<Long> retries = List.copyOf(failed);
+        failed.removeAll(retries);
+        retries.forEach(this::refreshQuietly);
+        if (started + retries.size() > 0) {
+            log.debug("Пересчитано сводок по вещам: {} с начавшимся бронированием, {} повторно.", started, retries.size());
+        }
+    }
+
+    /**
+     * Пересчитывает строку вещи в отдельной транзакции под блокировкой строки items,
+     * поэтому параллельные пересчёты одной вещи выполняются по очереди и видят данные друг друга.
+     */
+    public void refresh(Long itemId) {
+        requiresNew.executeWithoutResult(status -> {
+            if (itemRepository.findByIdForUpdate(itemId).isEmpty()) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            Optional<Booking> last = bookingRepository
+                    .findFirstByItem_IdAndStartIsBeforeAndStatusOrderByStartDesc(itemId, now, Status.APPROVED);
+            Optional<Booking> next = bookingRepository
+                    .findFirstByItem_IdAndStartIsAfterAndStatusOrderByStartAsc(itemId, now, Status.APPROVED);
+
+            ItemBookingSummary summary = summaryRepository.findById(itemId).orElseGet(ItemBookingSummary::new);
+            summary.setItemId(itemId);
+            summary.setLastBookingId(last.map(Booking::getId).orElse(null));
+            summary.setLastBookerId(last.map(booking -> booking.getBooker().getId()).orElse(null));
+            summary.setNextBookingId(next.map(Booking::getId).orElse(null));
+            summary.setNextBookerId(next.map(booking -> booking.getBooker().getId()).orElse(null));
+            summary.setNextBookingStart(next.map(Booking::getStart).orElse(null));
+            summaryRepository.save(summary);
+        });
+    }
+
+    private int refreshAll(LongFunction<List<Long>> nextBatch) {
+        int refreshed = 0;
+        long afterId = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = nextBatch.apply(afterId);
+            itemIds.forEach(this::refreshQuietly);
+            refreshed += itemIds.size();
+            if (!itemIds.isEmpty()) {
+                afterId = itemIds.getLast();
+            }
+        } while (itemIds.size() == REFRESH_BATCH);
+        return refreshed;
+    }
+
+    /**
+     * Если пересчитать строку не удалось, она удаляется: без сводки вещь читается прямыми
+     * запросами к bookings, а пересчёт, который создаст строку заново, повторит планировщик.
+     */
+    private void refreshQuietly(Long itemId) {
+        try {
+            refresh(itemId);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось пересчитать сводку по вещи {}: {}", itemId, e.getMessage());
+            failed.add(itemId);
+            try {
+                requiresNew.executeWithoutResult(status -> summaryRepository.deleteById(itemId));
+            } catch (RuntimeException deleteError) {
+                log.error("Не удалось удалить устаревшую сводку по вещи {}: {}", itemId, deleteError.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.ItemSavedEvent;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый импорт вещей из NDJSON: строки разбираются и проверяются по одной, а сохраняются
+ * порциями по CHUNK_SIZE в отдельных транзакциях, чтобы Hibernate отправлял вставки пачками.
+ * Ошибочные строки попадают в отчёт и не прерывают импорт остальных.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemImportService {
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ItemRepository itemRepository;
+    private final UserService userService;
+    private final ItemMapper itemMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    public ItemImportResultDto importItems(Long userId, InputStream ndjson) throws IOException {
+        User owner = userService.getUserById(userId);
+        ItemImportResultDto result = new ItemImportResultDto();
+        long started = System.nanoTime();
+
+        List<Item> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Integer> lines = new ArrayList<>(CHUNK_SIZE);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            Item item = parse(line, lineNumber, result);
+            if (item == null) {
+                continue;
+            }
+            item.setOwner(owner);
+            chunk.add(item);
+            lines.add(lineNumber);
+            if (chunk.size() == CHUNK_SIZE) {
+                saveChunk(chunk, lines, result);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+                lines = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        saveChunk(chunk, lines, result);
+
+        long elapsedNanos = System.nanoTime() - started;
+        result.setDurationMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        result.setItemsPerSecond(elapsedNanos == 0 ? 0 : result.getImported() * TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+        log.info("Импорт вещей пользователя {}: сохранено {}, ошибок {}, {} мс, {} вещей/с.",
+                userId, result.getImported(), result.getFailed(), result.getDurationMs(), result.getItemsPerSecond());
+        return result;
+    }
+
+    private Item parse(String line, int lineNumber, ItemImportResultDto result) {
+        ItemDto itemDto;
+        try {
+            itemDto = objectMapper.readValue(line, ItemDto.class);
+        } catch (JsonProcessingException e) {
+            reject(result, lineNumber, "Некорректный JSON: " + e.getOriginalMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto);
+        if (!violations.isEmpty()) {
+            reject(result, lineNumber, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+
+        Item item = itemMapper.toItem(itemDto);
+        item.setId(null);
+        return item;
+    }
+
+    private void saveChunk(List<Item> chunk, List<Integer> lines, ItemImportResultDto result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                itemRepository.saveAll(chunk).forEach(saved -> eventPublisher.publishEvent(new ItemSavedEvent(saved, true)));
+                entityManager.flush();
+                entityManager.clear();
+            });
+            result.setImported(result.getImported() + chunk.size());
+        } catch (DataAccessException | PersistenceException e) {
+            log.warn("Порция из {} вещей не сохранена ({}), сохраняем по одной.", chunk.size(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                saveOne(chunk.get(i), lines.get(i), result);
+            }
+        }
+    }
+
+    private void saveOne(Item item, int lineNumber, ItemImportResultDto result) {
+        item.setId(null);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    eventPublisher.publishEvent(new ItemSavedEvent(itemRepository.save(item), true)));
+            result.setImported(result.getImported() + 1);
+        } catch (DataAccessException | PersistenceException e) {
+            reject(result, lineNumber, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+    }
+
+    private static void reject(ItemImportResultDto result, int lineNumber, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ItemImportErrorDto(lineNumber, message));
+        }
+    }
+}
@@ -1,50 +1,76 @@
 package ru.practicum.shareit.item.service;
 
-import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.repo.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemSavedEvent;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemWithBookingsAndCommentsDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.repo.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repo.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemService {
 
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
     private final CommentMapper commentMapper;
-
+    private final ItemMapper itemMapper;
+    private final BookingMapper bookingMapper;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
     public Item addItem(Long userId, Item item) {
-        User owner = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
+        User owner = userService.getUserById(userId);
 
+        if (item.getRequestId() != null && !itemRequestRepository.existsById(item.getRequestId())) {
+            throw new NotFoundException("Запрос не найден.");
+        }
 
         item.setOwner(owner);
         log.info("Добавляем новую вещь: {}", item.getName());
-        return itemRepository.save(item);
+        Item savedItem = itemRepository.save(item);
+        eventPublisher.publishEvent(new ItemSavedEvent(savedItem, true));
+        return savedItem;
     }
 
+    @Transactional
     public Item updateItem(Long userId, Long itemId, Item updatedItem) {
         Item existingItem = itemRepository.findById(updatedItem.getId()).orElseThrow(() -> new NotFoundException("item not found"));
 
@@ -64,76 +90,112 @@ public class ItemService {
         }
 
         log.info("Вещь с id {} была обновлена.", itemId);
-        return itemRepository.save(existingItem);
+        Item savedItem = itemRepository.save(existingItem);
+        eventPublisher.publishEvent(new ItemSavedEvent(savedItem, false));
+        return savedItem;
     }
 
     public ItemWithBookingsAndCommentsDto getItemById(Long itemId, Long userId) {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("item not found"));
 
-        List<Comment> comments = commentRepository.findByItem_Id(itemId);
-
-        ItemWithBookingsAndCommentsDto itemDto = new ItemWithBookingsAndCommentsDto();
-        itemDto.setId(item.getId());
-        itemDto.setName(item.getName());
-        itemDto.setDescription(item.getDescription());
-        itemDto.setAvailable(item.getAvailable());
-        itemDto.setOwnerId(item.getOwner().getId());
-
-        itemDto.setComments(comments.stream()
+        List<CommentDto> comments = commentRepository.findByItem_Id(itemId).stream()
                 .map(commentMapper::toCommentDto)
-                .toList());
+                .toList();
 
+        BookingItemDto lastBooking = null;
+        BookingItemDto nextBooking = null;
         if (Objects.equals(item.getOwner().getId(), userId)) {
             LocalDateTime now = LocalDateTime.now();
+            Optional<ItemBookingSummary> summary = summaryRepository.findById(itemId)
+                    .filter(s -> s.isFreshAt(now));
+            if (summary.isPresent()) {
+                return itemMapper.toItemWithBookingsAndCommentsDto(item,
+                        bookingMapper.toBookingItemDto(summary.get().getLastBookingId(), summary.get().getLastBookerId()),
+                        bookingMapper.toBookingItemDto(summary.get().getNextBookingId(), summary.get().getNextBookerId()),
+                        comments);
+            }
+
+            lastBooking = bookingRepository
+                    .findFirstByItem_IdAndStartIsBeforeAndStatusOrderByStartDesc(itemId, now, Status.APPROVED)
+                    .map(bookingMapper::toBookingItemDto)
+                    .orElse(null);
+
+            nextBooking = bookingRepository
+                    .findFirstByItem_IdAndStartIsAfterAndStatusOrderByStartAsc(itemId, now, Status.APPROVED)
+                    .map(bookingMapper::toBookingItemDto)
+                    .orElse(null);
+        }
 
-            Optional<Booking> lastBooking = bookingRepository
-                    .findByItem_IdAndStartIsBeforeAndStatus(itemId, now, Status.APPROVED, Sort.by(Sort.Direction.DESC, "start"))
-                    .stream()
-                    .findFirst();
-
-            Optional<Booking> nextBooking = bookingRepository
-                    .findByItem_IdAndStartIsAfterAndStatus(itemId, now, Status.APPROVED, Sort.by(Sort.Direction.ASC, "start"))
-                    .stream()
-                    .findFirst();
-
-            lastBooking.ifPresent(booking -> {
-                BookingItemDto bookingDto = new BookingItemDto();
-                bookingDto.setId(booking.getId());
-                bookingDto.setBookerId(booking.getBooker().getId());
-                itemDto.setLastBooking(bookingDto);
-            });
-
-            nextBooking.ifPresent(booking -> {
-                BookingItemDto bookingDto = new BookingItemDto();
-                bookingDto.setId(booking.getId());
-                bookingDto.setBookerId(booking.getBooker().getId());
-                itemDto.setNextBooking(bookingDto);
-            });
+        return itemMapper.toItemWithBookingsAndCommentsDto(item, lastBooking, nextBooking, comments);
+    }
+
+    public List<ItemWithBookingsAndCommentsDto> getItemsByOwner(Long userId, Long cursor, int size) {
+        List<Item> items = itemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(userId, cursor, Limit.of(size));
+        if (items.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        return itemDto;
+        List<Long> itemIds = items.stream().map(Item::getId).toList();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, BookingItemDto> lastBookings = new HashMap<>();
+        Map<Long, BookingItemDto> nextBookings = new HashMap<>();
+        List<Long> withoutSummary = new ArrayList<>(itemIds);
+        for (ItemBookingSummary summary : summaryRepository.findAllById(itemIds)) {
+            if (summary.isFreshAt(now)) {
+                withoutSummary.remove(summary.getItemId());
+                putIfPresent(lastBookings, summary.getItemId(),
+                        bookingMapper.toBookingItemDto(summary.getLastBookingId(), summary.getLastBookerId()));
+                putIfPresent(nextBookings, summary.getItemId(),
+                        bookingMapper.toBookingItemDto(summary.getNextBookingId(), summary.getNextBookerId()));
+            }
+        }
+        if (!withoutSummary.isEmpty()) {
+            bookingRepository.findLastApprovedByItemIds(withoutSummary, now).forEach(booking ->
+                    lastBookings.put(booking.getItemId(), bookingMapper.toBookingItemDto(booking)));
+            bookingRepository.findNextApprovedByItemIds(withoutSummary, now).forEach(booking ->
+                    nextBookings.put(booking.getItemId(), bookingMapper.toBookingItemDto(booking)));
+        }
+        Map<Long, List<CommentDto>> comments = commentRepository.findByItem_IdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(commentMapper::toCommentDto, Collectors.toList())));
+
+        return items.stream()
+                .map(item -> itemMapper.toItemWithBookingsAndCommentsDto(item,
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()),
+                        comments.getOrDefault(item.getId(), List.of())))
+                .toList();
     }
 
-    public List<Item> getItemsByOwner(Long userId) {
-        return itemRepository.findAll().stream().filter(item -> item.getOwner() != null && Objects.equals(item.getOwner().getId(), userId)).toList();
+    public List<Item> searchItems(String text, int from, int size) {
+        if (text == null || text.isBlank()) {
+            return new ArrayList<>();
+        }
+        return itemSearchIndex.search(text, from, size);
     }
 
-    public List<Item> searchItems(String text) {
+    /**
+     * Поиск вещей, свободных в [start, end): без подтверждённых бронирований, пересекающих окно.
+     */
+    public List<Item> searchFreeItems(String text, LocalDateTime start, LocalDateTime end, int from, int size)
+            throws ValidationException {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new ValidationException("Для поиска свободных вещей нужны start и end, start раньше end.");
+        }
         if (text == null || text.isBlank()) {
             return new ArrayList<>();
         }
-        String searchText = text.toLowerCase();
-        return itemRepository.findAll().stream().filter(item -> Boolean.TRUE.equals(item.getAvailable()) && (item.getName().toLowerCase().contains(searchText) || item.getDescription().toLowerCase().contains(searchText))).toList();
+        return itemSearchIndex.searchFree(text, start, end, from, size);
     }
 
-    public Comment addComment(Long userId, Long itemId, Comment comment) {
-        User author = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден."));
+    @Transactional
+    public Comment addComment(Long userId, Long itemId, Comment comment) throws ValidationException {
+        User author = userService.getUserById(userId);
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("Вещь не найдена."));
 
-        List<Booking> userBookings = bookingRepository.findByBookerIdAndItem_IdAndEndIsBefore(userId, itemId, LocalDateTime.now());
-
-        if (userBookings.isEmpty()) {
+        if (!bookingRepository.existsByBookerIdAndItem_IdAndEndIsBefore(userId, itemId, LocalDateTime.now())) {
             throw new ValidationException("Пользователь не может оставлять комментарии, так как не брал вещь в аренду.");
         }
 
@@ -143,4 +205,10 @@ public class ItemService {
 
         return commentRepository.save(comment);
     }
-}
\ No newline at end of file
+
+    private static void putIfPresent(Map<Long, BookingItemDto> bookings, Long itemId, BookingItemDto booking) {
+        if (booking != null) {
+            bookings.put(itemId, booking);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import ru.practicum.shareit.booking.BookingState;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Таймеры методов сервисов (shareit.service, с тегом state для списков бронирований)
+ * и число строк, возвращённых методами репозиториев (shareit.repository.rows).
+ * Время выполнения репозиториев публикует сам Spring Boot в spring.data.repository.invocations.
+ */
+@Aspect
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * ru.practicum.shareit..service.*Service.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("shareit.service")
+                    .description("Service method execution time")
+                    .tag("class", signature.getDeclaringType().getSimpleName())
+                    .tag("method", signature.getName())
+                    .tag("state", stateOf(signature, joinPoint.getArgs()))
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Around("execution(* ru.practicum.shareit..*Repository.*(..))")
+    public Object countRows(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        if (result instanceof Stream<?>) {
+            return result;
+        }
+        DistributionSummary.builder("shareit.repository.rows")
+                .description("Rows returned by repository query methods")
+                .baseUnit("rows")
+                .tag("repository", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                .tag("method", joinPoint.getSignature().getName())
+                .register(meterRegistry)
+                .record(rowsOf(result));
+        return result;
+    }
+
+    private static String stateOf(MethodSignature signature, Object[] args) {
+        String[] names = signature.getParameterNames();
+        for (int i = 0; names != null && i < names.length; i++) {
+            if ("state".equals(names[i]) && args[i] instanceof String state) {
+                try {
+                    return BookingState.from(state).name();
+                } catch (IllegalArgumentException e) {
+                    return "UNKNOWN";
+                }
+            }
+        }
+        return NONE;
+    }
+
+    private static int rowsOf(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return result == null ? 0 : 1;
+    }
+}
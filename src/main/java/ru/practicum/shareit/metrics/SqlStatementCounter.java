@@ -0,0 +1,31 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Считает SQL-запросы, подготовленные Hibernate в текущем потоке, и запоминает последний из них.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+    private static final ThreadLocal<String> LAST = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        LAST.set(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+        LAST.remove();
+    }
+
+    public static int get() {
+        return COUNT.get()[0];
+    }
+
+    public static String last() {
+        return LAST.get();
+    }
+}
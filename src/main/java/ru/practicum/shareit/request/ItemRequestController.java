@@ -1,12 +1,62 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import java.util.List;
+
+@Slf4j
+@Validated
 @RestController
+@RequiredArgsConstructor
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
+
+    private final ItemRequestService itemRequestService;
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public ItemRequestDto addRequest(@RequestHeader(USER_ID_HEADER) Long userId,
+                                     @Valid @RequestBody ItemRequestCreateDto requestDto) {
+        log.info("Запрос на создание запроса вещи от пользователя {}.", userId);
+        return itemRequestService.addRequest(userId, requestDto);
+    }
+
+    @GetMapping
+    public List<ItemRequestDto> getOwnRequests(@RequestHeader(USER_ID_HEADER) Long userId) {
+        log.debug("Запрос на получение запросов пользователя {}.", userId);
+        return itemRequestService.getOwnRequests(userId);
+    }
+
+    @GetMapping("/all")
+    public ResponseEntity<List<ItemRequestDto>> getOtherRequests(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                                 @RequestParam(required = false) @Positive Long cursor,
+                                                                 @RequestParam(defaultValue = "20") @Positive Integer size) {
+        log.debug("Запрос на получение запросов других пользователей от пользователя {}.", userId);
+        List<ItemRequestDto> requests = itemRequestService.getOtherRequests(userId, cursor, size);
+        if (requests.size() < size) {
+            return ResponseEntity.ok(requests);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(requests.getLast().getId()))
+                .body(requests);
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestDto getRequestById(@RequestHeader(USER_ID_HEADER) Long userId,
+                                         @PathVariable Long requestId) {
+        log.debug("Запрос на получение запроса {} от пользователя {}.", requestId, userId);
+        return itemRequestService.getRequestById(userId, requestId);
+    }
 }
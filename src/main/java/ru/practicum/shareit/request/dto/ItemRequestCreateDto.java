@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class ItemRequestCreateDto {
+
+    @NotBlank(message = "Описание запроса не может быть пустым.")
+    @Size(max = 512)
+    private String description;
+}
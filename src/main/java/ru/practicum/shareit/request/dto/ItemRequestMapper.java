@@ -0,0 +1,14 @@
+package ru.practicum.shareit.request.dto;
+
+import org.mapstruct.Mapper;
+import ru.practicum.shareit.item.dto.ItemAnswerView;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface ItemRequestMapper {
+    ItemRequestDto toDto(ItemRequest request, List<ItemAnswerDto> items);
+
+    ItemAnswerDto toAnswerDto(ItemAnswerView item);
+}
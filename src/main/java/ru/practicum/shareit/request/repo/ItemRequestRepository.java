@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request.repo;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
+@Repository
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+
+    List<ItemRequest> findByRequestorIdOrderByIdDesc(Long requestorId);
+
+    List<ItemRequest> findByRequestorIdNotAndIdLessThanOrderByIdDesc(Long requestorId, Long id, Limit limit);
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemAnswerView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repo.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repo.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemRequestService {
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final ItemRequestMapper itemRequestMapper;
+
+    @Transactional
+    public ItemRequestDto addRequest(Long userId, ItemRequestCreateDto requestDto) {
+        User requestor = userService.getUserById(userId);
+
+        ItemRequest request = new ItemRequest();
+        request.setDescription(requestDto.getDescription());
+        request.setRequestor(requestor);
+        request.setCreated(LocalDateTime.now());
+
+        ItemRequest savedRequest = itemRequestRepository.save(request);
+        log.info("Пользователь {} создал запрос вещи {}.", userId, savedRequest.getId());
+        return itemRequestMapper.toDto(savedRequest, List.of());
+    }
+
+    public List<ItemRequestDto> getOwnRequests(Long userId) {
+        checkUser(userId);
+        return withAnswers(itemRequestRepository.findByRequestorIdOrderByIdDesc(userId));
+    }
+
+    /**
+     * Запросы других пользователей от новых к старым. cursor — id последнего запроса
+     * предыдущей страницы, null для первой страницы.
+     */
+    public List<ItemRequestDto> getOtherRequests(Long userId, Long cursor, int size) {
+        checkUser(userId);
+        long after = cursor == null ? Long.MAX_VALUE : cursor;
+        return withAnswers(itemRequestRepository.findByRequestorIdNotAndIdLessThanOrderByIdDesc(userId, after,
+                Limit.of(size)));
+    }
+
+    public ItemRequestDto getRequestById(Long userId, Long requestId) {
+        checkUser(userId);
+        ItemRequest request = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос не найден."));
+        return withAnswers(List.of(request)).getFirst();
+    }
+
+    private List<ItemRequestDto> withAnswers(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> requestIds = requests.stream().map(ItemRequest::getId).toList();
+        Map<Long, List<ItemAnswerDto>> answers = itemRepository.findAnswersByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemAnswerView::getRequestId,
+                        Collectors.mapping(itemRequestMapper::toAnswerDto, Collectors.toList())));
+
+        return requests.stream()
+                .map(request -> itemRequestMapper.toDto(request, answers.getOrDefault(request.getId(), List.of())))
+                .toList();
+    }
+
+    private void checkUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден.");
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.user;
+
+/**
+ * Публикуется при удалении пользователя. Его вещи, бронирования и отзывы удаляются
+ * каскадно в БД, минуя JPA, поэтому кэши и индексы в памяти сбрасываются по этому событию.
+ */
+public record UserDeletedEvent(Long userId) {
+}
@@ -2,10 +2,17 @@ package ru.practicum.shareit.user.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.user.UserDeletedEvent;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repo.UserRepository;
 
@@ -13,14 +20,21 @@ import java.util.List;
 
 @Slf4j
 @Service
+@Transactional(readOnly = true)
 public class UserService {
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache users;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                       CacheManager cacheManager) {
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.users = cacheManager.getCache(CacheConfig.USERS);
     }
 
+    @Transactional
     public User addUser(User user) throws ValidationException, ConflictException {
         if (user.getEmail() == null || user.getEmail().isBlank()) {
             throw new ValidationException("Email не может быть пустым.");
@@ -33,6 +47,8 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#updatedUser.id")
     public User updateUser(User updatedUser) throws ConflictException {
         User existingUser = userRepository.findById(updatedUser.getId())
                 .orElseThrow(() -> new NotFoundException("User not found."));
@@ -52,22 +68,48 @@ public class UserService {
         return userRepository.save(existingUser);
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id")
     public void deleteUser(Long id) {
         if (!userRepository.existsById(id)) {
             throw new NotFoundException("User not found.");
         }
         log.info("Deleting user with id: {}", id);
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
     }
 
+    /**
+     * В кэше лежит неизменяемый снимок пользователя, а вызывающий получает новую отсоединённую
+     * копию: изменения возвращённого объекта не попадают ни в кэш, ни в другие запросы.
+     */
     public User getUserById(Long id) {
-        log.info("Fetching user with id: {}", id);
-        return userRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("User not found."));
+        CachedUser cached = users.get(id, CachedUser.class);
+        if (cached == null) {
+            log.debug("Fetching user with id: {}", id);
+            cached = CachedUser.of(userRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("User not found.")));
+            users.put(id, cached);
+        }
+        return cached.toUser();
     }
 
     public List<User> getAllUsers() {
-        log.info("Fetching all users.");
+        log.debug("Fetching all users.");
         return userRepository.findAll();
     }
-}
\ No newline at end of file
+
+    private record CachedUser(Long id, String name, String email) {
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getName(), user.getEmail());
+        }
+
+        User toUser() {
+            User user = new User();
+            user.setId(id);
+            user.setName(name);
+            user.setEmail(email);
+            return user;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+-- V1 is the schema-h2.sql used before migrations; everything added to the schema since then follows here.
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT NEXT VALUE FOR items_seq;
+
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+  item_id BIGINT NOT NULL,
+  last_booking_id BIGINT,
+  last_booker_id BIGINT,
+  next_booking_id BIGINT,
+  next_booker_id BIGINT,
+  next_booking_start TIMESTAMP WITHOUT TIME ZONE,
+  CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+  CONSTRAINT fk_item_booking_summary_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+
+-- Rows for the existing items. New items get theirs from ItemBookingSummaryService when they are created.
+INSERT INTO item_booking_summary
+    (item_id, last_booking_id, last_booker_id, next_booking_id, next_booker_id, next_booking_start)
+SELECT i.id,
+    (SELECT b.id FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start < LOCALTIMESTAMP
+        ORDER BY b.start DESC, b.id DESC LIMIT 1),
+    (SELECT b.booker_id FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start < LOCALTIMESTAMP
+        ORDER BY b.start DESC, b.id DESC LIMIT 1),
+    (SELECT b.id FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start > LOCALTIMESTAMP
+        ORDER BY b.start ASC, b.id ASC LIMIT 1),
+    (SELECT b.booker_id FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start > LOCALTIMESTAMP
+        ORDER BY b.start ASC, b.id ASC LIMIT 1),
+    (SELECT min(b.start) FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start > LOCALTIMESTAMP)
+FROM items i;
+
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start);
+-- H2 has no trigram indexes: search falls back to a scan filtered by available
+CREATE INDEX IF NOT EXISTS idx_items_available ON items (available, id);
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_next_start ON item_booking_summary (next_booking_start);
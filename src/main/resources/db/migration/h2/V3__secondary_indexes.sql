@@ -0,0 +1,9 @@
+-- Indexes matched to the BookingRepository and CommentRepository queries.
+-- Status lists (WAITING, REJECTED) for bookers and owners, last/next APPROVED booking of an item
+-- and the overlap check on booking creation.
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start, id);
+-- Comment permission: a finished booking of the item by this user.
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_item_end ON bookings (booker_id, item_id, end_time);
+-- Comments of an item and their count.
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id, id);
@@ -0,0 +1,3 @@
+-- Free-item search: NOT EXISTS over APPROVED bookings of an item overlapping the requested window.
+-- H2 has no partial indexes, so status is part of the key.
+CREATE INDEX IF NOT EXISTS idx_bookings_item_approved_period ON bookings (item_id, status, start, end_time);
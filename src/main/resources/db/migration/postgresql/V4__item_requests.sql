@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS requests (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  description VARCHAR(512) NOT NULL,
+  requestor_id BIGINT NOT NULL,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  CONSTRAINT pk_request PRIMARY KEY (id),
+  CONSTRAINT fk_request_requestor FOREIGN KEY (requestor_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_id ON requests (requestor_id, id);
+
+-- request_id was never backed by a table, so existing values cannot reference a request.
+UPDATE items SET request_id = NULL WHERE request_id IS NOT NULL;
+ALTER TABLE items ADD CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE SET NULL;
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
@@ -0,0 +1,4 @@
+-- Free-item search: NOT EXISTS over APPROVED bookings of an item overlapping the requested window.
+-- start bounds the range scan, end_time is checked from the index without visiting the heap.
+CREATE INDEX IF NOT EXISTS idx_bookings_item_approved_period ON bookings (item_id, start, end_time)
+    WHERE status = 'APPROVED';
@@ -0,0 +1,6 @@
+-- PAST, CURRENT and FUTURE booking lists filter by range operators over tsrange(start, end_time)
+-- (see BookingPeriodFunctions). btree_gist lets the equality on booker_id / item_id share one
+-- GiST index with the range, so each state is a single index range lookup.
+-- The expression matches the one rendered by the JPQL functions.
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_period ON bookings USING gist (booker_id, tsrange(start, end_time));
+CREATE INDEX IF NOT EXISTS idx_bookings_item_period ON bookings USING gist (item_id, tsrange(start, end_time));
@@ -0,0 +1,154 @@
+-- bookings becomes a table partitioned by month of start: bookings_YYYY_MM plus bookings_default
+-- for rows outside the created months. The primary key has to include the partition key. There is
+-- no exclusion constraint on booking periods: one on a partitioned table would have to compare the
+-- partition key with equality. createBooking checks overlaps with an indexed EXISTS query on
+-- bookings while holding the items row lock, which serializes booking creation for an item.
+-- Partitions ahead and archival are maintained by BookingPartitionService through the functions below.
+ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+
+CREATE SEQUENCE IF NOT EXISTS booking_ids;
+SELECT setval('booking_ids', COALESCE((SELECT max(id) FROM bookings_unpartitioned), 0) + 1, false);
+
+CREATE TABLE bookings (
+    id BIGINT NOT NULL DEFAULT nextval('booking_ids'),
+    start TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_bookings PRIMARY KEY (id, start),
+    CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
+    CONSTRAINT fk_booking_booker FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE
+) PARTITION BY RANGE (start);
+
+CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+
+-- Maintenance functions take this transaction-level advisory lock, so runs started by several
+-- application instances at once do not interleave; a caller that does not get it skips the run.
+CREATE OR REPLACE FUNCTION bookings_maintenance_lock() RETURNS BOOLEAN AS $$
+    SELECT pg_try_advisory_xact_lock(hashtext('bookings_partitions'));
+$$ LANGUAGE sql;
+
+-- Creates the missing monthly partitions for [from_month, to_month]. Rows that already landed in
+-- bookings_default for such a month are moved into the new partition before it is attached.
+CREATE OR REPLACE FUNCTION bookings_create_partitions(from_month DATE, to_month DATE) RETURNS INTEGER AS $$
+DECLARE
+    partition_month DATE := date_trunc('month', from_month);
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    IF NOT bookings_maintenance_lock() THEN
+        RETURN 0;
+    END IF;
+    LOCK TABLE bookings_default IN SHARE ROW EXCLUSIVE MODE;
+    WHILE partition_month <= to_month LOOP
+        partition_name := 'bookings_' || to_char(partition_month, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I (LIKE bookings INCLUDING DEFAULTS)', partition_name);
+            EXECUTE format('WITH moved AS (DELETE FROM bookings_default WHERE start >= %L AND start < %L RETURNING *) '
+                               || 'INSERT INTO %I SELECT * FROM moved',
+                           partition_month, partition_month + INTERVAL '1 month', partition_name);
+            EXECUTE format('ALTER TABLE bookings ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, partition_month, partition_month + INTERVAL '1 month');
+            created := created + 1;
+        END IF;
+        partition_month := partition_month + INTERVAL '1 month';
+    END LOOP;
+    RETURN created;
+END
+$$ LANGUAGE plpgsql;
+
+-- One row per archived month. The bookings array is stored as JSONB, which TOAST compresses.
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    month DATE NOT NULL,
+    booking_count INTEGER NOT NULL,
+    bookings JSONB NOT NULL,
+    archived_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT now(),
+    CONSTRAINT pk_bookings_archive PRIMARY KEY (month)
+);
+
+-- Archives the oldest monthly partition before before_month and returns its month, or NULL when
+-- there is nothing to archive or another instance holds the maintenance lock. The rows are copied
+-- while only the partition itself is locked against writes; the ACCESS EXCLUSIVE lock that DETACH
+-- takes on bookings is held just for the detach and drop at the end. Callers archive one
+-- partition per transaction.
+CREATE OR REPLACE FUNCTION bookings_archive_next(before_month DATE) RETURNS DATE AS $$
+DECLARE
+    old_partition RECORD;
+BEGIN
+    IF NOT bookings_maintenance_lock() THEN
+        RETURN NULL;
+    END IF;
+    SELECT c.relname AS name, to_date(substring(c.relname FROM 10), 'YYYY_MM') AS month
+    INTO old_partition
+    FROM pg_inherits i
+    JOIN pg_class c ON c.oid = i.inhrelid
+    WHERE i.inhparent = 'bookings'::regclass AND c.relname ~ '^bookings_[0-9]{4}_[0-9]{2}$'
+      AND to_date(substring(c.relname FROM 10), 'YYYY_MM') < date_trunc('month', before_month)
+    ORDER BY c.relname
+    LIMIT 1;
+    IF NOT FOUND THEN
+        RETURN NULL;
+    END IF;
+
+    EXECUTE format('LOCK TABLE %I IN SHARE MODE', old_partition.name);
+    EXECUTE format('INSERT INTO bookings_archive (month, booking_count, bookings) '
+                       || 'SELECT %L, count(*), COALESCE(jsonb_agg(to_jsonb(b) ORDER BY b.start, b.id), ''[]''::jsonb) '
+                       || 'FROM %I b '
+                       || 'ON CONFLICT (month) DO UPDATE SET '
+                       || 'booking_count = bookings_archive.booking_count + EXCLUDED.booking_count, '
+                       || 'bookings = bookings_archive.bookings || EXCLUDED.bookings, archived_at = now()',
+                   old_partition.month, old_partition.name);
+    EXECUTE format('ALTER TABLE bookings DETACH PARTITION %I', old_partition.name);
+    EXECUTE format('DROP TABLE %I', old_partition.name);
+    RETURN old_partition.month;
+END
+$$ LANGUAGE plpgsql;
+
+-- Archives rows of bookings_default that started before before_month, grouped by month, and
+-- returns their number. Only row locks are taken.
+CREATE OR REPLACE FUNCTION bookings_archive_default(before_month DATE) RETURNS INTEGER AS $$
+DECLARE
+    archived INTEGER;
+BEGIN
+    IF NOT bookings_maintenance_lock() THEN
+        RETURN 0;
+    END IF;
+    WITH moved AS (
+        DELETE FROM bookings_default WHERE start < date_trunc('month', before_month) RETURNING *
+    ), months AS (
+        INSERT INTO bookings_archive (month, booking_count, bookings)
+        SELECT date_trunc('month', m.start)::date, count(*), jsonb_agg(to_jsonb(m) ORDER BY m.start, m.id)
+        FROM moved m
+        GROUP BY 1
+        ON CONFLICT (month) DO UPDATE SET
+            booking_count = bookings_archive.booking_count + EXCLUDED.booking_count,
+            bookings = bookings_archive.bookings || EXCLUDED.bookings,
+            archived_at = now()
+        RETURNING booking_count
+    )
+    SELECT count(*) INTO archived FROM moved;
+    RETURN archived;
+END
+$$ LANGUAGE plpgsql;
+
+SELECT bookings_create_partitions(
+    LEAST(COALESCE((SELECT min(start) FROM bookings_unpartitioned), now()), now())::date,
+    (now() + INTERVAL '12 months')::date);
+
+INSERT INTO bookings (id, start, end_time, item_id, booker_id, status)
+SELECT id, start, end_time, item_id, booker_id, status FROM bookings_unpartitioned;
+
+DROP TABLE bookings_unpartitioned;
+ALTER SEQUENCE booking_ids OWNED BY bookings.id;
+
+-- Indexes from V2, V3, V5 and V6, now created on every partition.
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_item_end ON bookings (booker_id, item_id, end_time);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_approved_period ON bookings (item_id, start, end_time)
+    WHERE status = 'APPROVED';
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_period ON bookings USING gist (booker_id, tsrange(start, end_time));
+CREATE INDEX IF NOT EXISTS idx_bookings_item_period ON bookings USING gist (item_id, tsrange(start, end_time));
@@ -0,0 +1,117 @@
+-- Archived bookings also keep owner_id, the owner of their item, so deleting a user can find the
+-- archived bookings the user made and those made for the user's items through the GIN index below.
+-- Archived bookings whose booker or item was deleted before this migration are dropped here.
+UPDATE bookings_archive a
+SET bookings = k.bookings, booking_count = k.booking_count
+FROM (
+    SELECT a2.month,
+           COALESCE(jsonb_agg(e.value || jsonb_build_object('owner_id', i.owner_id) ORDER BY e.ord)
+                        FILTER (WHERE i.id IS NOT NULL AND u.id IS NOT NULL), '[]'::jsonb) AS bookings,
+           count(*) FILTER (WHERE i.id IS NOT NULL AND u.id IS NOT NULL) AS booking_count
+    FROM bookings_archive a2
+    CROSS JOIN LATERAL jsonb_array_elements(a2.bookings) WITH ORDINALITY AS e(value, ord)
+    LEFT JOIN items i ON i.id = (e.value->>'item_id')::bigint
+    LEFT JOIN users u ON u.id = (e.value->>'booker_id')::bigint
+    GROUP BY a2.month
+) k
+WHERE a.month = k.month;
+
+DELETE FROM bookings_archive WHERE booking_count = 0;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_bookings ON bookings_archive USING gin (bookings jsonb_path_ops);
+
+-- As in V7, with owner_id added to every archived booking.
+CREATE OR REPLACE FUNCTION bookings_archive_next(before_month DATE) RETURNS DATE AS $$
+DECLARE
+    old_partition RECORD;
+BEGIN
+    IF NOT bookings_maintenance_lock() THEN
+        RETURN NULL;
+    END IF;
+    SELECT c.relname AS name, to_date(substring(c.relname FROM 10), 'YYYY_MM') AS month
+    INTO old_partition
+    FROM pg_inherits i
+    JOIN pg_class c ON c.oid = i.inhrelid
+    WHERE i.inhparent = 'bookings'::regclass AND c.relname ~ '^bookings_[0-9]{4}_[0-9]{2}$'
+      AND to_date(substring(c.relname FROM 10), 'YYYY_MM') < date_trunc('month', before_month)
+    ORDER BY c.relname
+    LIMIT 1;
+    IF NOT FOUND THEN
+        RETURN NULL;
+    END IF;
+
+    EXECUTE format('LOCK TABLE %I IN SHARE MODE', old_partition.name);
+    EXECUTE format('INSERT INTO bookings_archive (month, booking_count, bookings) '
+                       || 'SELECT %L, count(*), COALESCE(jsonb_agg(to_jsonb(b) || jsonb_build_object(''owner_id'', i.owner_id) '
+                       || 'ORDER BY b.start, b.id), ''[]''::jsonb) '
+                       || 'FROM %I b LEFT JOIN items i ON i.id = b.item_id '
+                       || 'ON CONFLICT (month) DO UPDATE SET '
+                       || 'booking_count = bookings_archive.booking_count + EXCLUDED.booking_count, '
+                       || 'bookings = bookings_archive.bookings || EXCLUDED.bookings, archived_at = now()',
+                   old_partition.month, old_partition.name);
+    EXECUTE format('ALTER TABLE bookings DETACH PARTITION %I', old_partition.name);
+    EXECUTE format('DROP TABLE %I', old_partition.name);
+    RETURN old_partition.month;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION bookings_archive_default(before_month DATE) RETURNS INTEGER AS $$
+DECLARE
+    archived INTEGER;
+BEGIN
+    IF NOT bookings_maintenance_lock() THEN
+        RETURN 0;
+    END IF;
+    WITH moved AS (
+        DELETE FROM bookings_default WHERE start < date_trunc('month', before_month) RETURNING *
+    ), months AS (
+        INSERT INTO bookings_archive (month, booking_count, bookings)
+        SELECT date_trunc('month', m.start)::date, count(*),
+               jsonb_agg(to_jsonb(m) || jsonb_build_object('owner_id', i.owner_id) ORDER BY m.start, m.id)
+        FROM moved m
+        LEFT JOIN items i ON i.id = m.item_id
+        GROUP BY 1
+        ON CONFLICT (month) DO UPDATE SET
+            booking_count = bookings_archive.booking_count + EXCLUDED.booking_count,
+            bookings = bookings_archive.bookings || EXCLUDED.bookings,
+            archived_at = now()
+        RETURNING booking_count
+    )
+    SELECT count(*) INTO archived FROM moved;
+    RETURN archived;
+END
+$$ LANGUAGE plpgsql;
+
+-- Removes the archived bookings made by deleted_user_id or for the items it owned and returns their
+-- number. Called in the transaction that deletes the user; months left empty are deleted.
+CREATE OR REPLACE FUNCTION bookings_archive_purge_user(deleted_user_id BIGINT) RETURNS INTEGER AS $$
+DECLARE
+    purged INTEGER;
+BEGIN
+    WITH kept AS (
+        SELECT a.month,
+               COALESCE(jsonb_agg(e.value ORDER BY e.ord) FILTER (WHERE NOT e.removed), '[]'::jsonb) AS bookings,
+               count(*) FILTER (WHERE NOT e.removed) AS booking_count,
+               count(*) FILTER (WHERE e.removed) AS removed
+        FROM bookings_archive a
+        CROSS JOIN LATERAL (
+            SELECT b.value, b.ord,
+                   (b.value->>'booker_id')::bigint IS NOT DISTINCT FROM deleted_user_id
+                       OR (b.value->>'owner_id')::bigint IS NOT DISTINCT FROM deleted_user_id AS removed
+            FROM jsonb_array_elements(a.bookings) WITH ORDINALITY AS b(value, ord)
+        ) e
+        WHERE a.bookings @> jsonb_build_array(jsonb_build_object('booker_id', deleted_user_id))
+           OR a.bookings @> jsonb_build_array(jsonb_build_object('owner_id', deleted_user_id))
+        GROUP BY a.month
+    ), updated AS (
+        UPDATE bookings_archive a
+        SET bookings = kept.bookings, booking_count = kept.booking_count
+        FROM kept
+        WHERE a.month = kept.month
+        RETURNING kept.removed
+    )
+    SELECT COALESCE(sum(removed), 0) INTO purged FROM updated;
+    DELETE FROM bookings_archive WHERE booking_count = 0;
+    RETURN purged;
+END
+$$ LANGUAGE plpgsql;
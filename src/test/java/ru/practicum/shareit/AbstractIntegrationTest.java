@@ -0,0 +1,68 @@
+package ru.practicum.shareit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repo.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repo.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Общий контекст интеграционных тестов на H2 и фабрики сохранённых пользователей, вещей и бронирований.
+ * Фоновый пересчёт сводок отключён, чтобы он не добавлял запросы в подсчёты тестов.
+ * Дополнительные свойства подклассы задают через {@code @TestPropertySource}.
+ */
+@SpringBootTest(properties = "shareit.summary.refresh-interval-ms=3600000")
+public abstract class AbstractIntegrationTest {
+
+    @Autowired
+    protected UserRepository userRepository;
+    @Autowired
+    protected ItemRepository itemRepository;
+    @Autowired
+    protected BookingRepository bookingRepository;
+
+    protected User user() {
+        return user("user");
+    }
+
+    protected User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        return userRepository.save(user);
+    }
+
+    /**
+     * Несохранённая доступная вещь без владельца, например для ItemService.addItem.
+     */
+    protected static Item newItem() {
+        Item item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Аккумуляторная дрель");
+        item.setAvailable(true);
+        return item;
+    }
+
+    protected Item item(User owner) {
+        Item item = newItem();
+        item.setOwner(owner);
+        return itemRepository.save(item);
+    }
+
+    protected Booking booking(Item item, User booker, LocalDateTime start, LocalDateTime end, Status status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        return bookingRepository.save(booking);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingCursorTest {
+
+    @Test
+    void encodedCursorParsesBack() throws ValidationException {
+        Booking booking = new Booking();
+        booking.setId(42L);
+        booking.setStart(LocalDateTime.of(2030, 5, 17, 10, 15, 30, 123_456_000));
+
+        BookingCursor cursor = BookingCursor.after(booking);
+
+        assertEquals(new BookingCursor(booking.getStart(), 42L), BookingCursor.parse(cursor.encode()));
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new BookingCursor(LocalDateTime.of(2030, 1, 1, 0, 0), Long.MAX_VALUE).encode();
+
+        assertFalse(encoded.contains("+") || encoded.contains("/") || encoded.contains("="), encoded);
+    }
+
+    @Test
+    void missingCursorStartsFromTheTop() throws ValidationException {
+        assertSame(BookingCursor.FIRST, BookingCursor.parse(null));
+        assertSame(BookingCursor.FIRST, BookingCursor.parse(" "));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(ValidationException.class, () -> BookingCursor.parse("не base64!"));
+        assertThrows(ValidationException.class, () -> BookingCursor.parse(encode("2030-01-01T00:00")));
+        assertThrows(ValidationException.class, () -> BookingCursor.parse(encode("вчера|1")));
+        assertThrows(ValidationException.class, () -> BookingCursor.parse(encode("2030-01-01T00:00|x")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.AbstractIntegrationTest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class BookingExportTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void everyLineIsOneJsonObject() throws Exception {
+        User owner = user();
+        User booker = user();
+        Item item = item(owner);
+        LocalDateTime start = LocalDateTime.now().minusDays(10);
+        for (int i = 0; i < 3; i++) {
+            booking(item, booker, start.plusDays(2L * i), start.plusDays(2L * i + 1), Status.APPROVED);
+        }
+
+        MvcResult started = mockMvc.perform(get("/bookings/owner/export").header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n", -1);
+        assertEquals(4, lines.length, body);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(lines[i].startsWith("{") && lines[i].endsWith("}"), lines[i]);
+        }
+        assertEquals("", lines[3]);
+    }
+}
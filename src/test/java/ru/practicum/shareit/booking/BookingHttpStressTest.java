@@ -0,0 +1,160 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.AbstractIntegrationTest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Нагрузка через POST /bookings потоками, которых намного больше, чем соединений в пуле:
+ * на каждый спорный интервал создаётся ровно одно бронирование, а запросы к разным вещам
+ * не выстраиваются в одну очередь.
+ */
+@TestPropertySource(properties = "spring.datasource.hikari.maximum-pool-size=" + BookingHttpStressTest.POOL_SIZE)
+@AutoConfigureMockMvc
+class BookingHttpStressTest extends AbstractIntegrationTest {
+    static final int POOL_SIZE = 10;
+    private static final int THREADS = 64;
+    private static final int ITEMS = 200;
+    private static final int REQUESTS_PER_ITEM = 10;
+    private static final int DISJOINT_ITEMS = 40;
+    private static final long HOLD_MILLIS = 200;
+
+    private static volatile long holdMillis;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void tearDown() {
+        holdMillis = 0;
+    }
+
+    @Test
+    void oneBookingPerContestedSlot() throws Exception {
+        User owner = user();
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < REQUESTS_PER_ITEM; i++) {
+            bookers.add(user());
+        }
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(item(owner));
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<Callable<Integer>> requests = new ArrayList<>();
+        for (Item item : items) {
+            for (int i = 0; i < REQUESTS_PER_ITEM; i++) {
+                User booker = bookers.get(i);
+                // Интервалы сдвинуты на час, но все попарно пересекаются.
+                LocalDateTime from = start.plusHours(i % 3);
+                requests.add(() -> create(booker, item, from, from.plusDays(1)));
+            }
+        }
+        Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        for (int status : run(requests)) {
+            statuses.computeIfAbsent(status, key -> new AtomicInteger()).incrementAndGet();
+        }
+
+        assertEquals(ITEMS, statuses.get(201).get(), statuses.toString());
+        assertEquals(ITEMS * (REQUESTS_PER_ITEM - 1), statuses.get(409).get(), statuses.toString());
+        for (Item item : items) {
+            assertEquals(1, bookingRepository.findPeriodsByItemId(item.getId(),
+                    List.of(Status.WAITING, Status.APPROVED), LocalDateTime.now()).size());
+        }
+    }
+
+    /**
+     * Каждая транзакция держит блокировку своей вещи ещё HOLD_MILLIS перед фиксацией. Если бы
+     * бронирования разных вещей выполнялись по очереди, это заняло бы не меньше
+     * DISJOINT_ITEMS * HOLD_MILLIS; параллельно их ограничивает только размер пула,
+     * то есть около DISJOINT_ITEMS / POOL_SIZE * HOLD_MILLIS.
+     */
+    @Test
+    void disjointItemsAreNotSerialized() throws Exception {
+        User owner = user();
+        User booker = user();
+        List<Callable<Integer>> requests = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < DISJOINT_ITEMS; i++) {
+            Item item = item(owner);
+            requests.add(() -> create(booker, item, start, start.plusDays(1)));
+        }
+        create(booker, item(owner), start, start.plusDays(1));
+
+        holdMillis = HOLD_MILLIS;
+        long began = System.nanoTime();
+        List<Integer> statuses = run(requests);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - began);
+
+        assertTrue(statuses.stream().allMatch(status -> status == 201), statuses.toString());
+        assertTrue(elapsedMillis < DISJOINT_ITEMS * HOLD_MILLIS / 2,
+                "на " + DISJOINT_ITEMS + " вещей ушло " + elapsedMillis + " мс");
+    }
+
+    private List<Integer> run(List<Callable<Integer>> requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> future : executor.invokeAll(requests)) {
+                statuses.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return statuses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int create(User booker, Item item, LocalDateTime start, LocalDateTime end) throws Exception {
+        String body = "{\"itemId\":" + item.getId() + ",\"start\":\"" + start + "\",\"end\":\"" + end + "\"}";
+        return mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @TestConfiguration
+    static class HoldLockConfig {
+        @Bean
+        HoldLockBeforeCommit holdLockBeforeCommit() {
+            return new HoldLockBeforeCommit();
+        }
+    }
+
+    static class HoldLockBeforeCommit {
+        @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+        public void onBooking(BookingEvent event) throws InterruptedException {
+            if (holdMillis > 0) {
+                Thread.sleep(holdMillis);
+            }
+        }
+    }
+}
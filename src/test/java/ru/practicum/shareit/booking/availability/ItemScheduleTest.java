@@ -0,0 +1,150 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemScheduleTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void emptyScheduleIsAlwaysFree() {
+        assertTrue(ItemSchedule.EMPTY.isFree(at(0), at(100)));
+        assertTrue(ItemSchedule.EMPTY.busy(at(0), at(100)).isEmpty());
+        assertEquals(0, ItemSchedule.EMPTY.size());
+    }
+
+    @Test
+    void adjacentIntervalsDoNotOverlap() {
+        ItemSchedule schedule = ItemSchedule.of(List.of(period(1, 10, 20)));
+
+        assertTrue(schedule.isFree(at(0), at(10)));
+        assertTrue(schedule.isFree(at(20), at(30)));
+        assertFalse(schedule.isFree(at(19), at(30)));
+        assertFalse(schedule.isFree(at(0), at(11)));
+        assertFalse(schedule.isFree(at(12), at(13)));
+        assertFalse(schedule.isFree(at(0), at(30)));
+    }
+
+    @Test
+    void longEarlierIntervalCoversLaterGaps() {
+        ItemSchedule schedule = ItemSchedule.of(List.of(
+                period(1, 0, 100),
+                period(2, 10, 20),
+                period(3, 30, 40)));
+
+        assertFalse(schedule.isFree(at(50), at(60)));
+        assertEquals(List.of(1L), ids(schedule.busy(at(50), at(60))));
+        assertEquals(List.of(1L, 3L), ids(schedule.busy(at(35), at(60))));
+        assertTrue(schedule.isFree(at(100), at(110)));
+    }
+
+    @Test
+    void periodsAreKeptSortedByStartThenId() {
+        ItemSchedule schedule = ItemSchedule.of(List.of(
+                period(5, 30, 40),
+                period(4, 10, 20),
+                period(2, 10, 15)));
+
+        assertEquals(List.of(2L, 4L, 5L), ids(schedule.busy(at(0), at(100))));
+    }
+
+    @Test
+    void withAddsAndReplacesByBookingId() {
+        ItemSchedule schedule = ItemSchedule.of(List.of(period(1, 10, 20)));
+
+        ItemSchedule added = schedule.with(period(2, 30, 40));
+        assertEquals(2, added.size());
+        assertFalse(added.isFree(at(35), at(36)));
+        assertEquals(1, schedule.size(), "исходное расписание не меняется");
+
+        ItemSchedule moved = added.with(new BusyPeriod(2L, at(50), at(60), Status.APPROVED));
+        assertEquals(2, moved.size());
+        assertTrue(moved.isFree(at(30), at(40)));
+        assertEquals(List.of(new BusyPeriod(2L, at(50), at(60), Status.APPROVED)), moved.busy(at(55), at(56)));
+    }
+
+    @Test
+    void withOrdersBookingsSharingStartById() {
+        ItemSchedule schedule = ItemSchedule.of(List.of(period(1, 0, 5), period(3, 10, 20), period(6, 30, 40)))
+                .with(period(5, 10, 12))
+                .with(period(2, 10, 15));
+
+        assertEquals(List.of(1L, 2L, 3L, 5L, 6L), ids(schedule.busy(at(0), at(100))));
+        assertEquals(List.of(2L, 3L, 5L), ids(schedule.busy(at(11), at(12))));
+    }
+
+    @Test
+    void withoutRemovesOnlyThatBooking() {
+        ItemSchedule schedule = ItemSchedule.of(List.of(period(1, 10, 20), period(2, 30, 40)));
+
+        ItemSchedule removed = schedule.without(1L);
+        assertEquals(1, removed.size());
+        assertTrue(removed.isFree(at(10), at(20)));
+        assertFalse(removed.isFree(at(30), at(40)));
+        assertSame(schedule, schedule.without(99L));
+    }
+
+    @Test
+    void busyReturnsStoredValuesWithMicrosecondPrecision() {
+        LocalDateTime start = T0.plusNanos(123_456_000);
+        BusyPeriod period = new BusyPeriod(7L, start, start.plusHours(1), Status.WAITING);
+
+        assertEquals(List.of(period), ItemSchedule.of(List.of(period)).busy(T0, T0.plusDays(1)));
+    }
+
+    @Test
+    void matchesBruteForceOnRandomSchedules() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<BusyPeriod> periods = new ArrayList<>();
+            ItemSchedule incremental = ItemSchedule.EMPTY;
+            int count = random.nextInt(30);
+            for (int i = 0; i < count; i++) {
+                int start = random.nextInt(200);
+                BusyPeriod period = period(i, start, start + 1 + random.nextInt(40));
+                periods.add(period);
+                incremental = incremental.with(period);
+            }
+            ItemSchedule schedule = ItemSchedule.of(periods);
+
+            for (int query = 0; query < 50; query++) {
+                int from = random.nextInt(250);
+                LocalDateTime qFrom = at(from);
+                LocalDateTime qTo = at(from + 1 + random.nextInt(40));
+                List<Long> expected = periods.stream()
+                        .filter(p -> p.start().isBefore(qTo) && p.end().isAfter(qFrom))
+                        .sorted((a, b) -> a.start().equals(b.start())
+                                ? a.bookingId().compareTo(b.bookingId())
+                                : a.start().compareTo(b.start()))
+                        .map(BusyPeriod::bookingId)
+                        .toList();
+
+                assertEquals(expected, ids(schedule.busy(qFrom, qTo)));
+                assertEquals(expected, ids(incremental.busy(qFrom, qTo)));
+                assertEquals(expected.isEmpty(), schedule.isFree(qFrom, qTo));
+            }
+        }
+    }
+
+    private static BusyPeriod period(long id, int startHour, int endHour) {
+        return new BusyPeriod(id, at(startHour), at(endHour), Status.APPROVED);
+    }
+
+    private static LocalDateTime at(int hour) {
+        return T0.plusHours(hour);
+    }
+
+    private static List<Long> ids(List<BusyPeriod> periods) {
+        return periods.stream().map(BusyPeriod::bookingId).toList();
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.shareit.AbstractIntegrationTest;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Параллельные запросы на пересекающиеся интервалы одной вещи: сохраняется ровно одно бронирование.
+ */
+class BookingServiceConcurrencyTest extends AbstractIntegrationTest {
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void concurrentOverlappingRequestsCreateOneBooking() throws Exception {
+        User owner = user();
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(user());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Item item = item(owner);
+                LocalDateTime start = LocalDateTime.now().plusDays(1);
+                AtomicInteger created = new AtomicInteger();
+                AtomicInteger conflicts = new AtomicInteger();
+                CountDownLatch go = new CountDownLatch(1);
+
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    User booker = bookers.get(i);
+                    // Интервалы сдвинуты на час, но все попарно пересекаются.
+                    LocalDateTime from = start.plusHours(i % 3);
+                    futures.add(executor.submit(() -> {
+                        go.await();
+                        try {
+                            bookingService.createBooking(booker.getId(), request(item, from, from.plusDays(1)));
+                            created.incrementAndGet();
+                        } catch (ConflictException e) {
+                            conflicts.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                go.countDown();
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+
+                assertEquals(1, created.get(), "раунд " + round);
+                assertEquals(THREADS - 1, conflicts.get(), "раунд " + round);
+                assertEquals(1, bookingRepository.findAll().stream()
+                        .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                        .count(), "раунд " + round);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Бронирование, сохранённое в обход этого экземпляра (другим узлом), не попадает
+     * в его расписание в памяти, но пересечение всё равно отклоняется запросом к БД.
+     */
+    @Test
+    void overlapWrittenByAnotherInstanceIsRejected() throws Exception {
+        User owner = user();
+        User booker = user();
+        Item item = item(owner);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        bookingService.createBooking(booker.getId(), request(item, start, start.plusDays(1)));
+
+        booking(item, booker, start.plusDays(5), start.plusDays(6), Status.WAITING);
+
+        assertThrows(ConflictException.class, () -> bookingService.createBooking(booker.getId(),
+                request(item, start.plusDays(5).plusHours(12), start.plusDays(7))));
+    }
+
+    /**
+     * Расписание в памяти, устаревшее после отклонения бронирования другим узлом,
+     * не мешает занять освободившийся интервал.
+     */
+    @Test
+    void slotFreedByAnotherInstanceIsAccepted() throws Exception {
+        User owner = user();
+        User booker = user();
+        Item item = item(owner);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        Booking booking = bookingService.createBooking(booker.getId(), request(item, start, start.plusDays(1)));
+        assertEquals(1, bookingService.getItemAvailability(item.getId(), start, start.plusDays(1)).getBusy().size());
+
+        Booking rejected = bookingRepository.findById(booking.getId()).orElseThrow();
+        rejected.setStatus(Status.REJECTED);
+        bookingRepository.save(rejected);
+
+        Booking created = bookingService.createBooking(booker.getId(), request(item, start, start.plusDays(1)));
+        assertEquals(Status.WAITING, created.getStatus());
+    }
+
+    private static BookingRequestDto request(Item item, LocalDateTime start, LocalDateTime end) {
+        BookingRequestDto request = new BookingRequestDto();
+        request.setItemId(item.getId());
+        request.setStart(start);
+        request.setEnd(end);
+        return request;
+    }
+}
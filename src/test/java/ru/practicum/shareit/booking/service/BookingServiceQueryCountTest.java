@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.shareit.AbstractIntegrationTest;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Создание бронирования выполняет одно и то же число запросов независимо от того,
+ * сколько бронирований у вещи уже есть.
+ */
+class BookingServiceQueryCountTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void createBookingIsIndependentOfItemBookings() throws Exception {
+        User owner = user();
+        User booker = user();
+        Item rarelyBooked = item(owner);
+        Item oftenBooked = item(owner);
+        futureBookings(rarelyBooked, booker, 1);
+        futureBookings(oftenBooked, booker, 50);
+        LocalDateTime free = LocalDateTime.now().plusYears(1);
+
+        // Прогрев: кэш пользователя.
+        create(booker, rarelyBooked, free);
+        create(booker, oftenBooked, free);
+
+        int rarely = countStatements(booker, rarelyBooked, free.plusDays(10));
+        int often = countStatements(booker, oftenBooked, free.plusDays(10));
+
+        assertEquals(rarely, often);
+    }
+
+    private int countStatements(User booker, Item item, LocalDateTime start) throws Exception {
+        SqlStatementCounter.reset();
+        create(booker, item, start);
+        return SqlStatementCounter.get();
+    }
+
+    private void create(User booker, Item item, LocalDateTime start) throws Exception {
+        BookingRequestDto request = new BookingRequestDto();
+        request.setItemId(item.getId());
+        request.setStart(start);
+        request.setEnd(start.plusDays(1));
+        bookingService.createBooking(booker.getId(), request);
+    }
+
+    private void futureBookings(Item item, User booker, int count) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < count; i++) {
+            booking(item, booker, start.plusDays(2L * i), start.plusDays(2L * i + 1), Status.APPROVED);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class ConnectionLimitingDataSourceTest {
+    private final DataSource target = mock(DataSource.class);
+    private final ConnectionLimitingDataSource dataSource =
+            new ConnectionLimitingDataSource(target, "test", 2, Duration.ofMillis(50));
+
+    @Test
+    void rejectsConnectionsAboveLimitUntilOneIsClosed() throws SQLException {
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+        assertEquals(0, dataSource.availablePermits());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        assertEquals(1, dataSource.availablePermits());
+        dataSource.getConnection();
+        assertEquals(0, dataSource.availablePermits());
+    }
+
+    @Test
+    void repeatedCloseReleasesPermitOnce() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection limited = dataSource.getConnection();
+        limited.close();
+        limited.close();
+
+        assertEquals(2, dataSource.availablePermits());
+        verify(connection, times(1)).close();
+    }
+
+    @Test
+    void failedAcquisitionReleasesPermit() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("пул недоступен"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    void delegatesOtherCallsToConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.createStatement()).thenThrow(new SQLException("ошибка драйвера"));
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection limited = dataSource.getConnection();
+
+        assertTrue(limited.getAutoCommit());
+        SQLException error = assertThrows(SQLException.class, limited::createStatement);
+        assertEquals("ошибка драйвера", error.getMessage());
+    }
+
+    @Test
+    void proxyComparesByIdentity() throws SQLException {
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        assertEquals(first, first);
+        assertNotEquals(first, second);
+        assertEquals(System.identityHashCode(first), first.hashCode());
+    }
+
+    @Test
+    void waitsAreRecordedInMetrics() throws SQLException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dataSource.bindTo(registry);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+
+        dataSource.getConnection();
+        dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        Timer wait = registry.get("shareit.jdbc.limiter.wait").tag("pool", "test").timer();
+        assertEquals(3, wait.count());
+        assertTrue(wait.max(TimeUnit.MILLISECONDS) >= 40);
+        assertEquals(0.0, registry.get("shareit.jdbc.limiter.pending").gauge().value());
+    }
+
+    @Test
+    void closeClosesClosablePool() throws Exception {
+        DataSource pool = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+
+        new ConnectionLimitingDataSource(pool, "test", 1, Duration.ofMillis(50)).close();
+
+        verify((AutoCloseable) pool).close();
+    }
+}
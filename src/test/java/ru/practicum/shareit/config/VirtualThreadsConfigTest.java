@@ -0,0 +1,32 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadsConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void poolIsWrappedAndWaitsAreMetered() {
+        assertInstanceOf(ConnectionLimitingDataSource.class, dataSource);
+
+        assertEquals(1, jdbcTemplate.queryForObject("select 1", Integer.class));
+
+        assertEquals(1, meterRegistry.get("shareit.jdbc.limiter.wait").tag("pool", "dataSource").timers().size());
+    }
+}
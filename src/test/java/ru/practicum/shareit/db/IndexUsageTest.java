@@ -0,0 +1,107 @@
+package ru.practicum.shareit.db;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.AbstractIntegrationTest;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Планы H2 для SQL, который Hibernate строит из запросов BookingRepository и CommentRepository,
+ * используют индексы из миграций db/migration/h2. Запрос берётся из SqlStatementCounter после вызова
+ * метода репозитория и объясняется с теми же параметрами. Планы PostgreSQL (GiST, частичные и
+ * триграммные индексы) этим тестом не проверяются.
+ */
+class IndexUsageTest extends AbstractIntegrationTest {
+    private static final int ITEMS = 200;
+    private static final int BOOKINGS_PER_ITEM = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private long bookerId;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = user();
+        User booker = user();
+        bookerId = booker.getId();
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = item(owner);
+            itemId = item.getId();
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                LocalDateTime start = now.minusDays(j * 2L);
+                bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)), itemId, bookerId,
+                        j % 3 == 0 ? "WAITING" : "APPROVED"});
+            }
+            comments.add(new Object[]{"Отличная дрель", itemId, bookerId, Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (start, end_time, item_id, booker_id, status) values (?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.batchUpdate("insert into comments (text, item_id, author_id, created) values (?, ?, ?, ?)", comments);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void bookerStatusListUsesBookerStatusIndex() {
+        LocalDateTime cursor = LocalDateTime.now().plusYears(1);
+        SqlStatementCounter.reset();
+        bookingRepository.findByBookerIdAndStatus(bookerId, Status.WAITING, cursor, Long.MAX_VALUE, PageRequest.of(0, 10));
+        assertUsesIndex("IDX_BOOKINGS_BOOKER_STATUS_START",
+                bookerId, "WAITING", Timestamp.valueOf(cursor), Timestamp.valueOf(cursor), Long.MAX_VALUE, 10);
+    }
+
+    @Test
+    void commentPermissionUsesBookerItemEndIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        SqlStatementCounter.reset();
+        bookingRepository.existsByBookerIdAndItem_IdAndEndIsBefore(bookerId, itemId, now);
+        assertUsesIndex("IDX_BOOKINGS_BOOKER_ITEM_END", bookerId, itemId, Timestamp.valueOf(now), 1);
+    }
+
+    @Test
+    void lastApprovedBookingUsesItemStatusIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        SqlStatementCounter.reset();
+        bookingRepository.findFirstByItem_IdAndStartIsBeforeAndStatusOrderByStartDesc(itemId, now, Status.APPROVED);
+        String plan = explainLast(itemId, Timestamp.valueOf(now), "APPROVED", 1);
+        assertTrue(plan.contains("PUBLIC.IDX_BOOKINGS_ITEM_STATUS_START")
+                || plan.contains("PUBLIC.IDX_BOOKINGS_ITEM_APPROVED_PERIOD"), plan);
+    }
+
+    @Test
+    void itemCommentsDoNotScanTable() {
+        SqlStatementCounter.reset();
+        commentRepository.findByItem_Id(itemId);
+        String plan = explainLast(itemId);
+        assertFalse(plan.contains("PUBLIC.COMMENTS.tableScan"), plan);
+    }
+
+    private void assertUsesIndex(String index, Object... args) {
+        String plan = explainLast(args);
+        assertTrue(plan.contains("PUBLIC." + index), plan);
+    }
+
+    private String explainLast(Object... args) {
+        return jdbcTemplate.queryForObject("explain " + SqlStatementCounter.last(), String.class, args);
+    }
+}
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.repo.BookingRepository;
+import ru.practicum.shareit.item.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryItemSearchIndexTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final Map<Long, Item> stored = new HashMap<>();
+    private InMemoryItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<Item> found = new ArrayList<>();
+            ids.forEach(id -> {
+                if (stored.containsKey(id)) {
+                    found.add(stored.get(id));
+                }
+            });
+            return found;
+        });
+        index = new InMemoryItemSearchIndex(itemRepository, bookingRepository);
+    }
+
+    @Test
+    void nameMatchesRankBeforeDescriptionMatches() {
+        save(1L, 10L, "Молоток", "для дрели не подходит", true);
+        save(2L, 10L, "Дрель", "ударная", true);
+        save(3L, 10L, "Отвёртка", "", true);
+
+        assertEquals(List.of(2L, 1L), ids(index.search("ДРЕЛ", 0, 10)));
+    }
+
+    @Test
+    void shortQueriesScanAllDocuments() {
+        save(1L, 10L, "Дрель", "", true);
+        save(2L, 10L, "Пила", "", true);
+
+        assertEquals(List.of(1L), ids(index.search("др", 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("и", 0, 10)));
+    }
+
+    @Test
+    void unavailableItemsAreNotIndexed() {
+        save(1L, 10L, "Дрель", "", false);
+
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+    }
+
+    @Test
+    void reindexingReplacesOldText() {
+        save(1L, 10L, "Дрель", "", true);
+        save(1L, 10L, "Перфоратор", "", true);
+
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("перфоратор", 0, 10)));
+
+        save(1L, 10L, "Перфоратор", "", false);
+        assertTrue(index.search("перфоратор", 0, 10).isEmpty());
+    }
+
+    @Test
+    void deletingOwnerRemovesOnlyTheirItems() {
+        save(1L, 10L, "Дрель", "", true);
+        save(2L, 20L, "Дрель", "", true);
+
+        index.onUserDeleted(new UserDeletedEvent(10L));
+
+        assertEquals(List.of(2L), ids(index.search("дрель", 0, 10)));
+    }
+
+    @Test
+    void pagesByExactOffset() {
+        for (long id = 1; id <= 5; id++) {
+            save(id, 10L, "Дрель " + id, "", true);
+        }
+
+        assertEquals(List.of(2L, 3L), ids(index.search("дрель", 1, 2)));
+        assertEquals(List.of(5L), ids(index.search("дрель", 4, 2)));
+        assertTrue(index.search("дрель", 5, 2).isEmpty());
+    }
+
+    @Test
+    void searchFreeSkipsBookedItems() {
+        for (long id = 1; id <= 4; id++) {
+            save(id, 10L, "Дрель", "", true);
+        }
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(1);
+        when(bookingRepository.findItemIdsBookedBetween(anyCollection(), eq(Status.APPROVED), eq(start), eq(end)))
+                .thenAnswer(invocation -> {
+                    Collection<Long> ids = invocation.getArgument(0);
+                    return ids.stream().filter(id -> id % 2 == 0).toList();
+                });
+
+        assertEquals(List.of(1L, 3L), ids(index.searchFree("дрель", start, end, 0, 10)));
+        assertEquals(List.of(3L), ids(index.searchFree("дрель", start, end, 1, 10)));
+    }
+
+    @Test
+    void searchDuringRebuildSeesPreviousIndex() {
+        save(1L, 10L, "Дрель", "", true);
+        save(2L, 10L, "Дрель", "", true);
+        List<List<Long>> seenDuringRebuild = new ArrayList<>();
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(any(), any())).thenAnswer(invocation -> {
+            seenDuringRebuild.add(ids(index.search("дрель", 0, 10)));
+            return List.of(stored.get(1L), stored.get(2L));
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(List.of(1L, 2L)), seenDuringRebuild);
+        assertEquals(List.of(1L, 2L), ids(index.search("дрель", 0, 10)));
+    }
+
+    @Test
+    void changesDuringRebuildAreReplayed() {
+        save(1L, 10L, "Дрель", "", true);
+        save(2L, 20L, "Дрель", "", true);
+        save(3L, 30L, "Дрель", "", true);
+        List<Item> snapshot = List.copyOf(stored.values());
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(any(), any())).thenAnswer(invocation -> {
+            index.remove(1L);
+            index.onUserDeleted(new UserDeletedEvent(20L));
+            save(3L, 30L, "Перфоратор", "", true);
+            save(4L, 30L, "Дрель", "", true);
+            return snapshot;
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(4L), ids(index.search("дрель", 0, 10)));
+        assertEquals(List.of(3L), ids(index.search("перфоратор", 0, 10)));
+    }
+
+    private void save(Long id, Long ownerId, String name, String description, boolean available) {
+        User owner = new User();
+        owner.setId(ownerId);
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        item.setOwner(owner);
+        stored.put(id, item);
+        index.onItemSaved(new ItemSavedEvent(item, true));
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).toList();
+    }
+}
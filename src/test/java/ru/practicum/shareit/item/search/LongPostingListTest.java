@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongPostingListTest {
+
+    @Test
+    void keepsIdsSortedAndUnique() {
+        LongPostingList list = new LongPostingList();
+
+        assertTrue(list.add(5));
+        assertTrue(list.add(1));
+        assertTrue(list.add(3));
+        assertFalse(list.add(3));
+
+        assertArrayEquals(new long[]{1, 3, 5}, list.toArray());
+        assertEquals(3, list.size());
+        assertTrue(list.contains(3));
+        assertFalse(list.contains(4));
+    }
+
+    @Test
+    void removeReportsWhetherIdWasPresent() {
+        LongPostingList list = new LongPostingList();
+        list.add(1);
+        list.add(2);
+
+        assertTrue(list.remove(1));
+        assertFalse(list.remove(1));
+        assertArrayEquals(new long[]{2}, list.toArray());
+        assertTrue(list.remove(2));
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    void trimShrinksCapacityToSize() {
+        LongPostingList list = new LongPostingList();
+        for (long id = 0; id < 10; id++) {
+            list.add(id);
+        }
+        list.trim();
+        assertEquals(16L + 8L * 10, list.capacityBytes());
+
+        for (long id = 0; id < 10; id++) {
+            list.remove(id);
+        }
+        list.trim();
+        assertEquals(16L, list.capacityBytes());
+        assertTrue(list.add(7));
+        assertArrayEquals(new long[]{7}, list.toArray());
+    }
+
+    @Test
+    void matchesTreeSetOnRandomOperations() {
+        Random random = new Random(7);
+        LongPostingList list = new LongPostingList();
+        TreeSet<Long> expected = new TreeSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            long id = random.nextInt(500);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(id), list.add(id));
+            } else {
+                assertEquals(expected.remove(id), list.remove(id));
+            }
+        }
+
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), list.toArray());
+        assertEquals(expected.size(), list.size());
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.shareit.AbstractIntegrationTest;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.dto.CommentRequestDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Добавление отзыва проверяет завершённое бронирование одним запросом exists
+ * и не загружает ни бронирования автора, ни саму вещь.
+ */
+class CommentServiceQueryCountTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private CommentService commentService;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void addCommentIsIndependentOfBookingHistory() throws Exception {
+        User owner = user();
+        User booker = user();
+        Item rarelyBooked = item(owner);
+        Item oftenBooked = item(owner);
+        pastBookings(rarelyBooked, booker, 1);
+        pastBookings(oftenBooked, booker, 50);
+        userService.getUserById(booker.getId());
+
+        int rarely = countStatements(booker, rarelyBooked);
+        int often = countStatements(booker, oftenBooked);
+
+        assertEquals(rarely, often);
+        assertEquals(2, often, "exists-запрос по бронированиям и вставка отзыва");
+    }
+
+    private int countStatements(User author, Item item) throws Exception {
+        CommentRequestDto request = new CommentRequestDto();
+        request.setText("Отличная дрель");
+        SqlStatementCounter.reset();
+        commentService.addComment(author.getId(), item.getId(), request);
+        return SqlStatementCounter.get();
+    }
+
+    private void pastBookings(Item item, User booker, int count) {
+        LocalDateTime start = LocalDateTime.now().minusDays(2L * count + 2);
+        for (int i = 0; i < count; i++) {
+            booking(item, booker, start.plusDays(2L * i), start.plusDays(2L * i + 1), Status.APPROVED);
+        }
+    }
+}
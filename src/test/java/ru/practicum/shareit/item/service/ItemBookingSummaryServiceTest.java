@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.shareit.AbstractIntegrationTest;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сводка создаётся вместе с вещью и пересчитывается, когда каскадное удаление пользователя
+ * убирает бронирование, на которое она ссылается.
+ */
+class ItemBookingSummaryServiceTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Test
+    void addItemCreatesEmptySummary() {
+        Item item = itemService.addItem(user().getId(), newItem());
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertNull(summary.getLastBookingId());
+        assertNull(summary.getNextBookingId());
+    }
+
+    @Test
+    void deletingBookerRefreshesSummary() throws Exception {
+        User owner = user();
+        User booker = user();
+        Item item = itemService.addItem(owner.getId(), newItem());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingRequestDto request = new BookingRequestDto();
+        request.setItemId(item.getId());
+        request.setStart(start);
+        request.setEnd(start.plusDays(1));
+        Booking booking = bookingService.createBooking(booker.getId(), request);
+        bookingService.approveBooking(owner.getId(), booking.getId(), true, false);
+        assertEquals(booking.getId(), summaryRepository.findById(item.getId()).orElseThrow().getNextBookingId());
+
+        userService.deleteUser(booker.getId());
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertNull(summary.getNextBookingId());
+        assertNull(summary.getNextBookerId());
+        assertTrue(summary.isFreshAt(LocalDateTime.now()));
+    }
+}
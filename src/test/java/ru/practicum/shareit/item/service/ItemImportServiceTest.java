@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.AbstractIntegrationTest;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Импорт NDJSON сохраняет корректные строки пачками и сообщает номера ошибочных строк.
+ */
+class ItemImportServiceTest extends AbstractIntegrationTest {
+    private static final int IMPORTED = 20_000;
+    private static final int ADDED_ONE_BY_ONE = 2_000;
+
+    @Autowired
+    private ItemImportService itemImportService;
+    @Autowired
+    private ItemService itemService;
+
+    @Test
+    void invalidLinesAreReportedAndTheRestIsImported() throws Exception {
+        User owner = user();
+        String ndjson = line(1) + "\n"
+                + "{\"name\": \"Дрель\"\n"
+                + line(2) + "\n"
+                + "\n"
+                + "{\"name\": \"\", \"description\": \"Без названия\", \"available\": true}\n"
+                + line(3) + "\n";
+
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), stream(ndjson));
+
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of(2, 5), result.getErrors().stream().map(ItemImportErrorDto::getLine).toList());
+        assertEquals(3, itemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(owner.getId(), 0L, Limit.of(10)).size());
+    }
+
+    /**
+     * Пропускная способность импорта против добавления тех же вещей по одной через ItemService.addItem.
+     * Число SQL-запросов на вещь показывает, что вставки уходят пачками.
+     */
+    @Test
+    void importIsBatched() throws Exception {
+        User owner = user();
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < IMPORTED; i++) {
+            ndjson.append(line(i)).append('\n');
+        }
+
+        SqlStatementCounter.reset();
+        long started = System.nanoTime();
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), stream(ndjson.toString()));
+        long importNanos = System.nanoTime() - started;
+        int statements = SqlStatementCounter.get();
+
+        started = System.nanoTime();
+        for (int i = 0; i < ADDED_ONE_BY_ONE; i++) {
+            itemService.addItem(owner.getId(), newItem());
+        }
+        long singleNanos = System.nanoTime() - started;
+
+        System.out.printf("Импорт %d вещей: %d мс, %d вещей/с, %d SQL-запросов; addItem по одной: %d вещей/с%n",
+                IMPORTED, TimeUnit.NANOSECONDS.toMillis(importNanos), perSecond(IMPORTED, importNanos), statements,
+                perSecond(ADDED_ONE_BY_ONE, singleNanos));
+        assertEquals(IMPORTED, result.getImported());
+        assertEquals(0, result.getFailed());
+        assertTrue(statements < IMPORTED / 10, "SQL-запросов на " + IMPORTED + " вещей: " + statements);
+    }
+
+    private static long perSecond(int count, long nanos) {
+        return count * TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    private static String line(int number) {
+        return "{\"name\": \"Дрель " + number + "\", \"description\": \"Аккумуляторная дрель\", \"available\": true}";
+    }
+
+    private static ByteArrayInputStream stream(String ndjson) {
+        return new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.shareit.AbstractIntegrationTest;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Число SQL-запросов карточки вещи и списка вещей владельца не зависит
+ * от числа вещей на странице, бронирований и отзывов.
+ */
+class ItemServiceQueryCountTest extends AbstractIntegrationTest {
+    private static final int ITEMS = 20;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemBookingSummaryService summaryService;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    private User owner;
+    private User booker;
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = user();
+        booker = user();
+        items.clear();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = item(owner);
+            booking(item, booker, LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2), Status.APPROVED);
+            booking(item, booker, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3), Status.APPROVED);
+            for (int j = 0; j <= i; j++) {
+                comment(item);
+            }
+            items.add(item);
+        }
+    }
+
+    @Test
+    void getItemsByOwnerWithoutSummariesIsIndependentOfPageSize() {
+        summaryRepository.deleteAllById(items.stream().map(Item::getId).toList());
+
+        int single = countStatements(() -> itemService.getItemsByOwner(owner.getId(), 0L, 1));
+        int page = countStatements(() -> itemService.getItemsByOwner(owner.getId(), 0L, ITEMS));
+
+        assertEquals(single, page);
+    }
+
+    @Test
+    void getItemsByOwnerWithSummariesIsIndependentOfPageSize() {
+        items.forEach(item -> summaryService.refresh(item.getId()));
+
+        int single = countStatements(() -> itemService.getItemsByOwner(owner.getId(), 0L, 1));
+        int page = countStatements(() -> itemService.getItemsByOwner(owner.getId(), 0L, ITEMS));
+
+        assertEquals(single, page);
+    }
+
+    @Test
+    void getItemByIdIsIndependentOfCommentCount() {
+        Item fewComments = items.getFirst();
+        Item manyComments = items.getLast();
+
+        assertEquals(countStatements(() -> itemService.getItemById(fewComments.getId(), owner.getId())),
+                countStatements(() -> itemService.getItemById(manyComments.getId(), owner.getId())));
+        assertEquals(countStatements(() -> itemService.getItemById(fewComments.getId(), booker.getId())),
+                countStatements(() -> itemService.getItemById(manyComments.getId(), booker.getId())));
+    }
+
+    private static int countStatements(Runnable call) {
+        SqlStatementCounter.reset();
+        call.run();
+        return SqlStatementCounter.get();
+    }
+
+    private void comment(Item item) {
+        Comment comment = new Comment();
+        comment.setText("Отличная дрель");
+        comment.setItem(item);
+        comment.setAuthor(booker);
+        comment.setCreated(LocalDateTime.now());
+        commentRepository.save(comment);
+    }
+}
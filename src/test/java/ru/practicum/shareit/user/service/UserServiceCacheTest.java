@@ -0,0 +1,69 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.AbstractIntegrationTest;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.model.User;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+/**
+ * Кэш пользователей отдаёт копии и сбрасывается только после фиксации изменения.
+ */
+class UserServiceCacheTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void cachedUserIsNotChangedThroughReturnedCopy() {
+        User user = user("Анна");
+        User first = userService.getUserById(user.getId());
+        first.setName("Изменено");
+
+        SqlStatementCounter.reset();
+        User second = userService.getUserById(user.getId());
+
+        assertEquals(0, SqlStatementCounter.get(), "второе чтение обслуживается кэшем");
+        assertNotSame(first, second);
+        assertEquals("Анна", second.getName());
+    }
+
+    @Test
+    void updateIsVisibleAfterCommit() throws Exception {
+        User user = user("Анна");
+        userService.getUserById(user.getId());
+
+        User update = new User();
+        update.setId(user.getId());
+        update.setName("Мария");
+        userService.updateUser(update);
+
+        assertEquals("Мария", userService.getUserById(user.getId()).getName());
+    }
+
+    @Test
+    void readInsideUncommittedUpdateDoesNotReachCache() {
+        User user = user("Анна");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User update = new User();
+            update.setId(user.getId());
+            update.setName("Мария");
+            try {
+                userService.updateUser(update);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            assertEquals("Мария", userService.getUserById(user.getId()).getName());
+            status.setRollbackOnly();
+        });
+
+        assertEquals("Анна", userService.getUserById(user.getId()).getName());
+    }
+}